@@ -1,5 +1,6 @@
 import java.security.InvalidParameterException;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 /**
  * a binomial heap stores nodes in binomial trees each tree keeps the min heap property, with at most one tree of each
@@ -118,6 +119,16 @@ public class BinomialHeap<T> extends Heap<T> {
      */
     @Override
     void union(Heap<T> H) {
+        if (H == null || H.root == null){
+            return;
+        }
+        if (root == null){
+            root = H.root;
+            size += H.size;
+            H.root = null;
+            H.size = 0;
+            return;
+        }
         Node<T> x = root;
         Node<T> y = H.root;
         Node<T> z;
@@ -230,6 +241,20 @@ public class BinomialHeap<T> extends Heap<T> {
         return extractMin();
     }
 
+    /**
+     * pass each child of a node to an action, or the root of each tree if the node is null.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    @Override
+    void forEachChild(Node<T> node, Consumer<Node<T>> action) {
+        Node<T> x = node == null ? root : node.getChild();
+        while (x != null){
+            action.accept(x);
+            x = x.getRight_sibling();
+        }
+    }
+
     void drawHeap(){
         LinkedList<Node<T>> current = new LinkedList<Node<T>>();
         LinkedList<Node<T>> next = new LinkedList<Node<T>>();
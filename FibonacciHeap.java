@@ -1,6 +1,7 @@
 
 import java.security.InvalidParameterException;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 import static java.lang.Math.*;
 
 
@@ -75,81 +76,78 @@ public class FibonacciHeap<T> extends Heap<T> {
         if (root == null){
             return null;
         }
-        if (root.getLeft_sibling() == root){ // if there is only one tree in the heap.
-            root = toHeap(root.getChild()); //  make all of the root's children trees.
-        }else{
-//              remove root from heap and add it's children as trees.
-            Node<T> newroot = toHeap(root.getChild());
-            FibonacciHeap<T> H = new FibonacciHeap<>(newroot);
+//          add the root's children to the heap as trees.
+        Node<T> child = root.getChild();
+        if (child != null){
+            Node<T> y = child;
+            do {
+                y.setParent(null);
+                y = y.getRight_sibling();
+            }while (y != child);
+            union(new FibonacciHeap<>(child));
+        }
+//          remove root from heap.
+        if (root.getRight_sibling() == root){
+            root = null;
+        }else {
             root.getLeft_sibling().setRight_sibling(root.getRight_sibling());
             root.getRight_sibling().setLeft_sibling(root.getLeft_sibling());
-            root = toHeap(root.getRight_sibling());
-            union(H);
+            root = root.getRight_sibling();
         }
+        size--;
 //          consolidate the trees.
-        consolidate();
+        if (root != null){
+            consolidate();
+        }
         min_node.setLeft_sibling(null);
         min_node.setRight_sibling(null);
         min_node.setChild(null);
-        size--;
+        min_node.setDegree(0);
+        min_node.setMark(false);
         return min_node;
     }
 
-    /**
-     * find the node with minimal key and set all their parents to null.
-     * @param child a node in the linked-list.
-     * @return the minimal node.
-     */
-    private Node<T> toHeap(Node<T> child) {
-        if (child == null){
-            return null;
-        }
-        Node<T> y = child.getRight_sibling();
-        Node<T> min = child;
-        do {
-            if (y.getKey() < min.getKey()){
-                min = y;
-            }
-            y = y.getRight_sibling();
-            y.setParent(null);
-        }while(y != child);
-        return min;
-    }
-
     /**
      * consolidate the trees in the heap until there is at most one of each degree
      */
     private void consolidate(){
 //        initilize an empty array of nodes of size of max tree
-        Node<T>[] A = new Node[(int) (log(size)/log(GOLDEN_RATIO)) + 1];
+        Node<T>[] A = new Node[(int) (log(size)/log(GOLDEN_RATIO)) + 2];
+//        count the trees first, linking changes the root list while we walk it.
+        int trees = 0;
         Node<T> y = root;
-        Node<T> x = y;
+        do {
+            trees++;
+            y = y.getRight_sibling();
+        }while (y != root);
 //        try to add each tree to the array at the index of it's degree. if its already full link them and try again.
-        do{
+//        linking only unlinks the current tree or trees already in the array, so the next tree stays in the list.
+        for (int i = 0; i < trees; i++){
+            Node<T> x = y;
+            y = y.getRight_sibling();
             int deg = x.getDegree();
-            if (A[deg] == null){
-                A[deg] = x;
-                if (y == x){
-                    y = x.getRight_sibling();
-                }
-                x = y;
-            }else{
-                if (A[deg].getKey() < x.getKey()){
-                    if (y == x){
-                        y = x.getRight_sibling();
-                    }
-                    x.getRight_sibling().setLeft_sibling(x.getLeft_sibling());
-                    x.getLeft_sibling().setRight_sibling(x.getRight_sibling());
-                    A[deg].fibonacciLink(x);
-                    x = A[deg];
-                }else {
-                    A[deg].getRight_sibling().setLeft_sibling(A[deg].getLeft_sibling());
-                    A[deg].getLeft_sibling().setRight_sibling(A[deg].getRight_sibling());
-                    x.fibonacciLink(A[deg]);
+            while (A[deg] != null){
+                Node<T> other = A[deg];
+                if (other.getKey() < x.getKey()){
+                    Node<T> placeholder = x;
+                    x = other;
+                    other = placeholder;
                 }
+                other.getRight_sibling().setLeft_sibling(other.getLeft_sibling());
+                other.getLeft_sibling().setRight_sibling(other.getRight_sibling());
+                x.fibonacciLink(other);
                 A[deg] = null;
+                deg++;
+            }
+            A[deg] = x;
+        }
+//        the remaining trees form the root list, point root at the minimal one.
+        root = null;
+        for (Node<T> x : A){
+            if (x != null && (root == null || x.getKey() < root.getKey())){
+                root = x;
             }
-        }while(y != root);
+        }
     }
 
     /**
@@ -211,37 +209,48 @@ public class FibonacciHeap<T> extends Heap<T> {
      * @param node the node to cut.
      */
     private void cascadingCut(Node<T> node) {
-        if (node.getParent() != null && node.getKey() > node.getParent().getKey()){
-            Node<T> cascade = node.getParent();
-            cut(node);
-            while (cascade != null && cascade.getMark()){
-                Node<T> parent = cascade.getParent();
-                parent.setDegree(parent.getDegree() - 1);
-                cut(cascade);
-                cascade = parent;
-            }
-            if (cascade != null){
-                cascade.setMark(true);
-            }
+        if (node.getParent() != null && node.getKey() < node.getParent().getKey()){
+            cutAndCascade(node);
         }else if (node.getParent() == null && node.getKey() < root.getKey()){
             root = node;
         }
     }
 
+    /**
+     * cut a node that has a parent from its tree, then cut its marked ancestors and mark the first unmarked one.
+     * @param node the node to cut.
+     */
+    private void cutAndCascade(Node<T> node) {
+        Node<T> cascade = node.getParent();
+        cut(node);
+        while (cascade.getParent() != null && cascade.getMark()){
+            Node<T> parent = cascade.getParent();
+            cut(cascade);
+            cascade = parent;
+        }
+        if (cascade.getParent() != null){
+            cascade.setMark(true);
+        }
+    }
+
     /**
      * cut the node from the tree and add it to the heap as a new tree.
      * @param node to cut.
      */
     private void cut(Node<T> node) {
-        if (node.getParent() != null || node.getParent().getChild() == node){
-            if (node.getRight_sibling() == node){
-                node.getParent().setChild(null);
-            }else{
-                node.getParent().setChild(node.getRight_sibling());
-                node.getRight_sibling().setLeft_sibling(node.getLeft_sibling());
-                node.getLeft_sibling().setRight_sibling(node.getRight_sibling());
+        Node<T> parent = node.getParent();
+        if (node.getRight_sibling() == node){
+            parent.setChild(null);
+        }else{
+            if (parent.getChild() == node){
+                parent.setChild(node.getRight_sibling());
             }
+            node.getRight_sibling().setLeft_sibling(node.getLeft_sibling());
+            node.getLeft_sibling().setRight_sibling(node.getRight_sibling());
         }
+        parent.setDegree(parent.getDegree() - 1);
+        node.setParent(null);
+        node.setMark(false);
         node.setRight_sibling(node);
         node.setLeft_sibling(node);
         FibonacciHeap<T> H = new FibonacciHeap<T>(node);
@@ -255,8 +264,50 @@ public class FibonacciHeap<T> extends Heap<T> {
      */
     @Override
     Node<T> delete(Node<T> node) {
-        internalDecrease(node,-1);
-        return extractMin();
+        if (node == root){
+            return extractMin();
+        }
+//        any other node is cut to the root list and removed from there, its children become trees. the minimum
+//        doesn't change so there is nothing to consolidate.
+        if (node.getParent() != null){
+            cutAndCascade(node);
+        }
+        node.getLeft_sibling().setRight_sibling(node.getRight_sibling());
+        node.getRight_sibling().setLeft_sibling(node.getLeft_sibling());
+        Node<T> child = node.getChild();
+        if (child != null){
+            Node<T> y = child;
+            do {
+                y.setParent(null);
+                y = y.getRight_sibling();
+            }while (y != child);
+            union(new FibonacciHeap<>(child));
+        }
+        size--;
+        node.setLeft_sibling(null);
+        node.setRight_sibling(null);
+        node.setChild(null);
+        node.setDegree(0);
+        node.setMark(false);
+        return node;
+    }
+
+    /**
+     * pass each child of a node to an action, or the root of each tree if the node is null.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    @Override
+    void forEachChild(Node<T> node, Consumer<Node<T>> action) {
+        Node<T> first = node == null ? root : node.getChild();
+        if (first == null){
+            return;
+        }
+        Node<T> x = first;
+        do {
+            action.accept(x);
+            x = x.getRight_sibling();
+        } while (x != first);
     }
 
     void drawHeap(){
@@ -0,0 +1,190 @@
+import java.security.InvalidParameterException;
+import java.util.Random;
+
+/**
+ * a directed graph with non-negative int weights in compressed sparse row form. the edges leaving vertex v are the
+ * indices from begin(v) to end(v), excluded, into the target and weight arrays.
+ */
+public class Graph {
+
+    private final int[] offsets; // offsets[v] is the first edge of v, offsets[n] the number of edges.
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * private constructor, use the factory methods.
+     */
+    private Graph(int[] offsets, int[] targets, int[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * build a graph from a list of directed edges.
+     * @param n the number of vertices.
+     * @param from the source of each edge.
+     * @param to the target of each edge.
+     * @param weight the weight of each edge, must be non-negative.
+     * @return the graph.
+     */
+    static Graph fromEdges(int n, int[] from, int[] to, int[] weight) {
+        if (from.length != to.length || from.length != weight.length){
+            throw new InvalidParameterException("Edge arrays must have the same length");
+        }
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < from.length; i++){
+            if (from[i] < 0 || from[i] >= n || to[i] < 0 || to[i] >= n){
+                throw new InvalidParameterException("Edge endpoint out of range");
+            }
+            if (weight[i] < 0){
+                throw new InvalidParameterException("Weights must be non-negative");
+            }
+            offsets[from[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++){
+            offsets[v + 1] += offsets[v];
+        }
+//        place each edge at the next free slot of its source.
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        int[] targets = new int[from.length];
+        int[] weights = new int[from.length];
+        for (int i = 0; i < from.length; i++){
+            int e = next[from[i]]++;
+            targets[e] = to[i];
+            weights[e] = weight[i];
+        }
+        return new Graph(offsets, targets, weights);
+    }
+
+    /**
+     * build a graph from a list of undirected edges, each becomes an edge in both directions.
+     * @param n the number of vertices.
+     * @param from one end of each edge.
+     * @param to the other end of each edge.
+     * @param weight the weight of each edge, must be non-negative.
+     * @return the graph.
+     */
+    static Graph undirected(int n, int[] from, int[] to, int[] weight) {
+        int m = from.length;
+        int[] both_from = new int[2 * m];
+        int[] both_to = new int[2 * m];
+        int[] both_weight = new int[2 * m];
+        System.arraycopy(from, 0, both_from, 0, m);
+        System.arraycopy(to, 0, both_from, m, m);
+        System.arraycopy(to, 0, both_to, 0, m);
+        System.arraycopy(from, 0, both_to, m, m);
+        System.arraycopy(weight, 0, both_weight, 0, m);
+        System.arraycopy(weight, 0, both_weight, m, m);
+        return fromEdges(n, both_from, both_to, both_weight);
+    }
+
+    /**
+     * generate a random sparse undirected graph, a random spanning path keeps it connected.
+     * @param n the number of vertices.
+     * @param degree the average number of edges per vertex.
+     * @param maxWeight weights are drawn from 1 to maxWeight.
+     * @param seed the seed of the generator.
+     * @return the graph.
+     */
+    static Graph random(int n, int degree, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        int m = Math.max(n - 1, n * degree / 2);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        for (int i = 0; i < m; i++){
+            if (i < n - 1){
+                from[i] = i;
+                to[i] = i + 1;
+            }else {
+                from[i] = random.nextInt(n);
+                to[i] = random.nextInt(n);
+            }
+            weight[i] = 1 + random.nextInt(maxWeight);
+        }
+        return undirected(n, from, to, weight);
+    }
+
+    /**
+     * generate a grid graph where vertex x + y * width is connected to its four neighbours.
+     * @param width the width of the grid.
+     * @param height the height of the grid.
+     * @param maxWeight weights are drawn from 1 to maxWeight.
+     * @param seed the seed of the generator.
+     * @return the graph.
+     */
+    static Graph grid(int width, int height, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        int m = (width - 1) * height + width * (height - 1);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        int i = 0;
+        for (int y = 0; y < height; y++){
+            for (int x = 0; x < width; x++){
+                int v = x + y * width;
+                if (x + 1 < width){
+                    from[i] = v;
+                    to[i] = v + 1;
+                    weight[i++] = 1 + random.nextInt(maxWeight);
+                }
+                if (y + 1 < height){
+                    from[i] = v;
+                    to[i] = v + width;
+                    weight[i++] = 1 + random.nextInt(maxWeight);
+                }
+            }
+        }
+        return undirected(width * height, from, to, weight);
+    }
+
+    /**
+     *
+     * @return the number of vertices.
+     */
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     *
+     * @return the number of directed edges.
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param v a vertex.
+     * @return the index of the first edge leaving v.
+     */
+    public int begin(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * @param v a vertex.
+     * @return the index after the last edge leaving v.
+     */
+    public int end(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * @param e an edge index.
+     * @return the target of the edge.
+     */
+    public int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * @param e an edge index.
+     * @return the weight of the edge.
+     */
+    public int weight(int e) {
+        return weights[e];
+    }
+}
@@ -0,0 +1,157 @@
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * shortest path and minimum spanning tree algorithms over a Graph, using any heap that supports decreaseKey. the heap
+ * holds one node per vertex with the vertex as data. keys are ints, so all path lengths must fit in an int.
+ */
+public class GraphAlgorithms {
+    public static final int INFINITY = Integer.MAX_VALUE; // the distance of an unreachable vertex.
+
+    /**
+     * private constructor, the class only has static methods.
+     */
+    private GraphAlgorithms() {
+    }
+
+    /**
+     * dijkstra's single source shortest paths.
+     * @param graph the graph.
+     * @param source the source vertex.
+     * @param heap an empty heap.
+     * @return the distance of each vertex from source, INFINITY if it is unreachable.
+     */
+    static int[] dijkstra(Graph graph, int source, Heap<Integer> heap) {
+        checkEmpty(heap);
+        int n = graph.getVertexCount();
+        int[] dist = new int[n];
+        Arrays.fill(dist, INFINITY);
+        Node<Integer>[] handles = newHandles(n);
+        dist[source] = 0;
+        handles[source] = new Node<>(source, 0);
+        heap.insert(handles[source]);
+        while (heap.getSize() > 0){
+            int u = heap.extractMin().getData();
+            handles[u] = null;
+            for (int e = graph.begin(u); e < graph.end(u); e++){
+                int v = graph.target(e);
+                int d = Math.addExact(dist[u], graph.weight(e));
+                if (d < dist[v]){
+                    relax(heap, handles, v, d, dist[v] == INFINITY);
+                    dist[v] = d;
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * a* shortest path between two vertices.
+     * @param graph the graph.
+     * @param source the source vertex.
+     * @param target the target vertex.
+     * @param heuristic a lower bound on the distance of each vertex to target, must be consistent.
+     * @param heap an empty heap, nodes may be left in it when the search ends.
+     * @return the distance from source to target, INFINITY if it is unreachable.
+     */
+    static int aStar(Graph graph, int source, int target, IntUnaryOperator heuristic, Heap<Integer> heap) {
+        checkEmpty(heap);
+        int n = graph.getVertexCount();
+        int[] dist = new int[n];
+        Arrays.fill(dist, INFINITY);
+        Node<Integer>[] handles = newHandles(n);
+        dist[source] = 0;
+        handles[source] = new Node<>(source, heuristic.applyAsInt(source));
+        heap.insert(handles[source]);
+        while (heap.getSize() > 0){
+            int u = heap.extractMin().getData();
+            handles[u] = null;
+            if (u == target){
+                return dist[u];
+            }
+            for (int e = graph.begin(u); e < graph.end(u); e++){
+                int v = graph.target(e);
+                int d = Math.addExact(dist[u], graph.weight(e));
+                if (d < dist[v]){
+                    relax(heap, handles, v, Math.addExact(d, heuristic.applyAsInt(v)), dist[v] == INFINITY);
+                    dist[v] = d;
+                }
+            }
+        }
+        return INFINITY;
+    }
+
+    /**
+     * prim's minimum spanning forest of an undirected graph, given with edges in both directions.
+     * @param graph the graph.
+     * @param heap an empty heap.
+     * @return the parent of each vertex in the forest, -1 for the root of each tree.
+     */
+    static int[] prim(Graph graph, Heap<Integer> heap) {
+        checkEmpty(heap);
+        int n = graph.getVertexCount();
+        int[] parent = new int[n];
+        int[] cost = new int[n]; // weight of the lightest edge from the tree to each vertex.
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(parent, -1);
+        Arrays.fill(cost, INFINITY);
+        Node<Integer>[] handles = newHandles(n);
+        for (int root = 0; root < n; root++){
+            if (inTree[root]){
+                continue;
+            }
+            cost[root] = 0;
+            handles[root] = new Node<>(root, 0);
+            heap.insert(handles[root]);
+            while (heap.getSize() > 0){
+                int u = heap.extractMin().getData();
+                handles[u] = null;
+                inTree[u] = true;
+                for (int e = graph.begin(u); e < graph.end(u); e++){
+                    int v = graph.target(e);
+                    if (!inTree[v] && graph.weight(e) < cost[v]){
+                        relax(heap, handles, v, graph.weight(e), cost[v] == INFINITY);
+                        cost[v] = graph.weight(e);
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * insert a vertex into the heap or decrease its key.
+     * @param heap the heap.
+     * @param handles the node of each vertex in the heap.
+     * @param v the vertex.
+     * @param key the new key.
+     * @param insert whether the vertex is not in the heap yet.
+     */
+    private static void relax(Heap<Integer> heap, Node<Integer>[] handles, int v, int key, boolean insert) {
+        if (insert){
+            handles[v] = new Node<>(v, key);
+            heap.insert(handles[v]);
+            return;
+        }
+        Node<Integer> node = handles[v];
+        Node<Integer> moved = heap.decreaseKey(node, key);
+//        a binomial heap moves the data up to the returned node, the nodes on the way now hold other vertices.
+        for (Node<Integer> x = node; x != moved; x = x.getParent()){
+            handles[x.getData()] = x;
+        }
+        handles[moved.getData()] = moved;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Node<Integer>[] newHandles(int n) {
+        return new Node[n];
+    }
+
+    private static void checkEmpty(Heap<Integer> heap) {
+        if (heap == null || heap.getSize() != 0){
+            throw new InvalidParameterException("Heap must be empty");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.function.Supplier;
+
+/**
+ * end to end benchmarks of the graph algorithms with each heap, on generated graphs with a fixed seed. run with
+ * java GraphBenchmark [number of vertices] [average degree].
+ */
+public class GraphBenchmark {
+    private static final int ROUNDS = 5; // the first round is a warmup and is not reported.
+    private static final long SEED = 42;
+    private static final int MAX_WEIGHT = 1000;
+
+    /**
+     * a graph algorithm run with a given heap.
+     */
+    private interface Algorithm {
+        void run(Heap<Integer> heap);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Graph graph = Graph.random(n, degree, MAX_WEIGHT, SEED);
+        System.out.println("random graph with " + n + " vertices and " + graph.getEdgeCount() + " directed edges:");
+        compare("dijkstra", heap -> GraphAlgorithms.dijkstra(graph, 0, heap));
+        compare("prim", heap -> GraphAlgorithms.prim(graph, heap));
+        int width = (int) Math.sqrt(n);
+        Graph grid = Graph.grid(width, width, MAX_WEIGHT, SEED);
+        int target = width * width - 1;
+//        every step costs at least 1, so the manhattan distance is a consistent heuristic.
+        System.out.println(width + "x" + width + " grid, corner to corner:");
+        compare("a*", heap -> GraphAlgorithms.aStar(grid, 0, target,
+                v -> (width - 1 - v % width) + (width - 1 - v / width), heap));
+    }
+
+    /**
+     * time an algorithm with each heap.
+     * @param name the name of the algorithm.
+     * @param algorithm the algorithm.
+     */
+    private static void compare(String name, Algorithm algorithm) {
+        time(name, "BinomialHeap", BinomialHeap::new, algorithm);
+        time(name, "FibonacciHeap", FibonacciHeap::new, algorithm);
+        time(name, "MinMaxHeap", MinMaxHeap::new, algorithm);
+    }
+
+    /**
+     * time an algorithm with a heap.
+     * @param name the name of the algorithm.
+     * @param heapName the name of the heap.
+     * @param heaps creates an empty heap.
+     * @param algorithm the algorithm.
+     */
+    private static void time(String name, String heapName, Supplier<Heap<Integer>> heaps, Algorithm algorithm) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++){
+            Heap<Integer> heap = heaps.get();
+            long start = System.nanoTime();
+            algorithm.run(heap);
+            long time = System.nanoTime() - start;
+            if (round > 0){
+                best = Math.min(best, time);
+            }
+        }
+        System.out.println(String.format("%-10s %-16s %8d ms", name, heapName, best / 1000000));
+    }
+}
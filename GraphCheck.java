@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * checks the graph algorithms with each heap against simple references on generated graphs: dijkstra and a* against a
+ * dijkstra over java.util.PriorityQueue, prim against the weight of a kruskal spanning forest. small weights make
+ * many equal keys, so decreaseKey moves nodes around a lot. run with java GraphCheck [number of seeds].
+ * a failed check throws an IllegalStateException.
+ */
+public class GraphCheck {
+    private static final int VERTICES = 2000;
+    private static final int DEGREE = 6;
+    private static final int MAX_WEIGHT = 10;
+    private static final int WIDTH = 40; // width and height of the grids.
+    private static final int TARGETS = 10; // a* searches per grid.
+
+    public static void main(String[] args) {
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        check("BinomialHeap", BinomialHeap::new, seeds);
+        check("FibonacciHeap", FibonacciHeap::new, seeds);
+        check("MinMaxHeap", MinMaxHeap::new, seeds);
+    }
+
+    /**
+     * run all the checks with a heap.
+     * @param name the name to report.
+     * @param heaps creates an empty heap.
+     * @param seeds the number of seeds.
+     */
+    static void check(String name, Supplier<Heap<Integer>> heaps, int seeds) {
+        for (long seed = 0; seed < seeds; seed++){
+            Random random = new Random(seed);
+//            a random graph, a directed one where some vertices are unreachable, a grid and a random path.
+            Graph[] graphs = {Graph.random(VERTICES, DEGREE, MAX_WEIGHT, seed), directed(random),
+                    Graph.grid(WIDTH, WIDTH, MAX_WEIGHT, seed), Graph.random(VERTICES, 1, MAX_WEIGHT, seed)};
+            for (Graph graph : graphs){
+                int source = random.nextInt(graph.getVertexCount());
+                HeapCheck.check(Arrays.equals(GraphAlgorithms.dijkstra(graph, source, heaps.get()),
+                        distances(graph, source)), name + " dijkstra, seed " + seed);
+            }
+            for (Graph graph : new Graph[]{graphs[0], graphs[2], undirectedForest(random)}){
+                checkForest(name, graph, GraphAlgorithms.prim(graph, heaps.get()), seed);
+            }
+            Graph grid = graphs[2];
+            int source = random.nextInt(WIDTH * WIDTH);
+            int[] dist = distances(grid, source);
+            for (int i = 0; i < TARGETS; i++){
+                int target = random.nextInt(WIDTH * WIDTH);
+//                every step costs at least 1, so the manhattan distance is a consistent heuristic.
+                int d = GraphAlgorithms.aStar(grid, source, target,
+                        v -> Math.abs(v % WIDTH - target % WIDTH) + Math.abs(v / WIDTH - target / WIDTH), heaps.get());
+                HeapCheck.check(d == dist[target], name + " a*, seed " + seed);
+            }
+        }
+        System.out.println(String.format("%-16s %d seeds ok", name, seeds));
+    }
+
+    /**
+     * @param random the generator.
+     * @return a random directed graph, not every vertex is reachable.
+     */
+    private static Graph directed(Random random) {
+        int m = VERTICES * DEGREE / 2;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        for (int i = 0; i < m; i++){
+            from[i] = random.nextInt(VERTICES);
+            to[i] = random.nextInt(VERTICES);
+            weight[i] = random.nextInt(MAX_WEIGHT + 1);
+        }
+        return Graph.fromEdges(VERTICES, from, to, weight);
+    }
+
+    /**
+     * @param random the generator.
+     * @return a random undirected graph with few edges, so it has many components.
+     */
+    private static Graph undirectedForest(Random random) {
+        int m = VERTICES / 2;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        for (int i = 0; i < m; i++){
+            from[i] = random.nextInt(VERTICES);
+            to[i] = random.nextInt(VERTICES);
+            weight[i] = random.nextInt(MAX_WEIGHT + 1);
+        }
+        return Graph.undirected(VERTICES, from, to, weight);
+    }
+
+    /**
+     * dijkstra with a priority queue that keeps stale entries instead of decreasing keys.
+     * @param graph the graph.
+     * @param source the source vertex.
+     * @return the distance of each vertex from source, GraphAlgorithms.INFINITY if it is unreachable.
+     */
+    private static int[] distances(Graph graph, int source) {
+        int[] dist = new int[graph.getVertexCount()];
+        Arrays.fill(dist, GraphAlgorithms.INFINITY);
+        dist[source] = 0;
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        queue.add(new int[]{0, source});
+        while (!queue.isEmpty()){
+            int[] entry = queue.poll();
+            int u = entry[1];
+            if (entry[0] > dist[u]){
+                continue;
+            }
+            for (int e = graph.begin(u); e < graph.end(u); e++){
+                int v = graph.target(e);
+                if (dist[u] + graph.weight(e) < dist[v]){
+                    dist[v] = dist[u] + graph.weight(e);
+                    queue.add(new int[]{dist[v], v});
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * check that parent arrays describe a spanning forest with one tree per component and the weight of a kruskal
+     * minimum spanning forest.
+     */
+    private static void checkForest(String name, Graph graph, int[] parent, long seed) {
+        int n = graph.getVertexCount();
+        long weight = 0;
+        int roots = 0;
+        for (int v = 0; v < n; v++){
+            if (parent[v] < 0){
+                roots++;
+                continue;
+            }
+//            the tree edge is the lightest of the parallel edges between the two vertices.
+            int lightest = GraphAlgorithms.INFINITY;
+            for (int e = graph.begin(v); e < graph.end(v); e++){
+                if (graph.target(e) == parent[v]){
+                    lightest = Math.min(lightest, graph.weight(e));
+                }
+            }
+            HeapCheck.check(lightest != GraphAlgorithms.INFINITY, name + " prim parent is not a neighbour, seed " + seed);
+            weight += lightest;
+//            walking up from any vertex must reach a root within n steps.
+            int u = v;
+            for (int i = 0; i < n && u >= 0; i++){
+                u = parent[u];
+            }
+            HeapCheck.check(u < 0, name + " prim parents have a cycle, seed " + seed);
+        }
+//        kruskal with union find over the edges sorted by weight.
+        Integer[] edges = new Integer[graph.getEdgeCount()];
+        int[] sources = new int[graph.getEdgeCount()];
+        for (int v = 0; v < n; v++){
+            for (int e = graph.begin(v); e < graph.end(v); e++){
+                edges[e] = e;
+                sources[e] = v;
+            }
+        }
+        Arrays.sort(edges, (a, b) -> Integer.compare(graph.weight(a), graph.weight(b)));
+        int[] set = new int[n];
+        for (int v = 0; v < n; v++){
+            set[v] = v;
+        }
+        long expected = 0;
+        int components = n;
+        for (int e : edges){
+            int a = find(set, sources[e]);
+            int b = find(set, graph.target(e));
+            if (a != b){
+                set[a] = b;
+                expected += graph.weight(e);
+                components--;
+            }
+        }
+        HeapCheck.check(roots == components, name + " prim trees, seed " + seed);
+        HeapCheck.check(weight == expected, name + " prim weight, seed " + seed);
+    }
+
+    private static int find(int[] set, int v) {
+        while (set[v] != v){
+            set[v] = set[set[v]];
+            v = set[v];
+        }
+        return v;
+    }
+}
@@ -1,4 +1,11 @@
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * class holding nodes in trees.
@@ -58,4 +65,138 @@ public abstract class Heap <T>{
     abstract Node<T> delete(Node<T> node);
 
     abstract void drawHeap();
+
+    /**
+     * pass each child of a node to an action, or the root of each tree if the node is null.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    abstract void forEachChild(Node<T> node, Consumer<Node<T>> action);
+
+    /**
+     * pass to an action the nodes that may come right after a node in ascending order of key, or the candidates for
+     * the minimum if the node is null. in heap ordered trees these are the children.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    void forEachSuccessor(Node<T> node, Consumer<Node<T>> action){
+        forEachChild(node, action);
+    }
+
+    /**
+     * an iterator over the nodes of the heap in ascending order of key that leaves the heap unchanged. the roots and
+     * the successors of visited nodes are kept in a fibonacci heap of candidates. each visited node adds all of its
+     * successors, in binomial and fibonacci heaps that is up to log n children, so reading the first k nodes costs
+     * O(k log n) plus the number of roots. the heap must not change while iterating.
+     * @return the iterator.
+     */
+    Iterator<Node<T>> sortedIterator(){
+        FibonacciHeap<Node<T>> frontier = new FibonacciHeap<>();
+        Consumer<Node<T>> candidate = node -> frontier.insert(new Node<>(node, node.getKey()));
+        forEachSuccessor(null, candidate);
+        return new Iterator<Node<T>>() {
+            @Override
+            public boolean hasNext() {
+                return frontier.getSize() > 0;
+            }
+
+            @Override
+            public Node<T> next() {
+                Node<Node<T>> min = frontier.extractMin();
+                if (min == null){
+                    throw new NoSuchElementException();
+                }
+                forEachSuccessor(min.getData(), candidate);
+                return min.getData();
+            }
+        };
+    }
+
+    /**
+     * a lazy stream of the nodes of the heap in ascending order of key that leaves the heap unchanged.
+     * the heap must not change while the stream is used.
+     * @return the stream.
+     */
+    Stream<Node<T>> sortedStream(){
+        return StreamSupport.stream(Spliterators.spliterator(sortedIterator(), size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * a spliterator over the nodes of the heap in no particular order, it splits by handing over whole trees.
+     * the heap must not change while it is used.
+     * @return the spliterator.
+     */
+    Spliterator<Node<T>> spliterator(){
+        LinkedList<Node<T>> roots = new LinkedList<Node<T>>();
+        forEachChild(null, roots::add);
+        return new TreeSpliterator(roots, size);
+    }
+
+    /**
+     * a stream of the nodes of the heap in no particular order, call parallel for a parallel scan.
+     * the heap must not change while the stream is used.
+     * @return the stream.
+     */
+    Stream<Node<T>> stream(){
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * walks the trees under a list of nodes depth first.
+     */
+    private class TreeSpliterator implements Spliterator<Node<T>> {
+        private final LinkedList<Node<T>> trees; // roots of trees not visited yet
+        private final LinkedList<Node<T>> singles; // nodes to visit without their trees, their children are in trees
+        private long estimate;
+
+        private TreeSpliterator(LinkedList<Node<T>> trees, long estimate) {
+            this.trees = trees;
+            this.singles = new LinkedList<Node<T>>();
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Node<T>> action) {
+            Node<T> node = singles.pollFirst();
+            if (node == null){
+                node = trees.pollFirst();
+                if (node == null){
+                    return false;
+                }
+                forEachChild(node, trees::addFirst);
+            }
+            action.accept(node);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Node<T>> trySplit() {
+//            a single tree is split into its root and the trees of its children.
+            if (trees.size() == 1){
+                Node<T> node = trees.removeFirst();
+                singles.addLast(node);
+                forEachChild(node, trees::addLast);
+            }
+            if (trees.size() < 2){
+                return null;
+            }
+            LinkedList<Node<T>> half = new LinkedList<Node<T>>();
+            for (int i = trees.size() / 2; i > 0; i--){
+                half.addLast(trees.removeFirst());
+            }
+            estimate /= 2;
+            return new TreeSpliterator(half, estimate);
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
 }
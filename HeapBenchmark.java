@@ -0,0 +1,176 @@
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * simple wall clock benchmarks comparing the heaps, run with java HeapBenchmark [number of nodes].
+ */
+public class HeapBenchmark {
+    private static final int ROUNDS = 5; // the first round is a warmup and is not reported.
+    private static final long SEED = 42;
+    private static final int RESCHEDULES = 4;
+    private static final Runnable NOOP = () -> { };
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int[] keys = randomKeys(n);
+        System.out.println("insert " + n + " nodes then extractMin until empty:");
+        insertExtract("BinomialHeap", BinomialHeap::new, keys);
+        insertExtract("FibonacciHeap", FibonacciHeap::new, keys);
+        insertExtract("MinMaxHeap", MinMaxHeap::new, keys);
+        insertExtract("SoftHeap(0.1)", () -> new SoftHeap<>(0.1), keys);
+        insertExtract("SoftHeap(0.01)", () -> new SoftHeap<>(0.01), keys);
+        System.out.println("schedule " + n + " tasks then cancel them:");
+        cancelHeavy(n);
+        System.out.println("schedule " + n + " tasks then reschedule each of them " + RESCHEDULES + " times:");
+        rescheduleHeavy(n);
+    }
+
+    /**
+     * generate random non-negative keys.
+     * @param n the number of keys.
+     * @return the keys.
+     */
+    static int[] randomKeys(int n) {
+        Random random = new Random(SEED);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++){
+            keys[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        return keys;
+    }
+
+    /**
+     * time inserting all keys into a new heap and then extracting them, for soft heaps also report how many of the
+     * extracted nodes were reported as corrupted.
+     * @param name the name to report.
+     * @param heaps creates an empty heap.
+     * @param keys the keys to insert.
+     */
+    static void insertExtract(String name, Supplier<Heap<Integer>> heaps, int[] keys) {
+        long best = Long.MAX_VALUE;
+        int corrupted = 0;
+        for (int round = 0; round < ROUNDS; round++){
+            Heap<Integer> H = heaps.get();
+            corrupted = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < keys.length; i++){
+                H.insert(new Node<>(i, keys[i]));
+            }
+            while (H.getSize() > 0){
+                H.extractMin();
+                if (H instanceof SoftHeap && ((SoftHeap<Integer>) H).lastCorrupted()){
+                    corrupted++;
+                }
+            }
+            long time = System.nanoTime() - start;
+            if (round > 0){
+                best = Math.min(best, time);
+            }
+        }
+        String line = String.format("%-16s %8d ms", name, best / 1000000);
+        if (heaps.get() instanceof SoftHeap){
+            line += String.format("  %.2f%% of extracted nodes corrupted", 100.0 * corrupted / keys.length);
+        }
+        System.out.println(line);
+    }
+
+    /**
+     * time scheduling tasks an hour ahead and cancelling them, for TaskScheduler and ScheduledThreadPoolExecutor with
+     * removal on cancel. both remove the cancelled entries from their queues as they are cancelled.
+     * @param n the number of tasks.
+     */
+    static void cancelHeavy(int n) {
+        int[] delays = randomKeys(n);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++){
+            TaskScheduler scheduler = new TaskScheduler();
+            TaskScheduler.Task[] tasks = new TaskScheduler.Task[n];
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++){
+                tasks[i] = scheduler.schedule(NOOP, 3600000 + delays[i] % 3600000, TimeUnit.MILLISECONDS);
+            }
+            for (int i = 0; i < n; i++){
+                scheduler.cancel(tasks[i]);
+            }
+            long time = System.nanoTime() - start;
+            scheduler.close();
+            if (round > 0){
+                best = Math.min(best, time);
+            }
+        }
+        System.out.println(String.format("%-28s %8d ms", "TaskScheduler", best / 1000000));
+        best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++){
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            executor.setRemoveOnCancelPolicy(true);
+            ScheduledFuture<?>[] futures = new ScheduledFuture<?>[n];
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++){
+                futures[i] = executor.schedule(NOOP, 3600000 + delays[i] % 3600000, TimeUnit.MILLISECONDS);
+            }
+            for (int i = 0; i < n; i++){
+                futures[i].cancel(false);
+            }
+            long time = System.nanoTime() - start;
+            executor.shutdownNow();
+            if (round > 0){
+                best = Math.min(best, time);
+            }
+        }
+        System.out.println(String.format("%-28s %8d ms", "ScheduledThreadPoolExecutor", best / 1000000));
+    }
+
+    /**
+     * time scheduling tasks an hour ahead and moving each of them a few times, ScheduledThreadPoolExecutor has no
+     * reschedule so it cancels and schedules again. both remove the replaced entries from their queues before returning.
+     * @param n the number of tasks.
+     */
+    static void rescheduleHeavy(int n) {
+        int[] delays = randomKeys(n * (RESCHEDULES + 1));
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++){
+            TaskScheduler scheduler = new TaskScheduler();
+            TaskScheduler.Task[] tasks = new TaskScheduler.Task[n];
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++){
+                tasks[i] = scheduler.schedule(NOOP, 3600000 + delays[i] % 3600000, TimeUnit.MILLISECONDS);
+            }
+            for (int j = 1; j <= RESCHEDULES; j++){
+                for (int i = 0; i < n; i++){
+                    scheduler.reschedule(tasks[i], 3600000 + delays[j * n + i] % 3600000, TimeUnit.MILLISECONDS);
+                }
+            }
+            long time = System.nanoTime() - start;
+            scheduler.close();
+            if (round > 0){
+                best = Math.min(best, time);
+            }
+        }
+        System.out.println(String.format("%-28s %8d ms", "TaskScheduler", best / 1000000));
+        best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++){
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            executor.setRemoveOnCancelPolicy(true);
+            ScheduledFuture<?>[] futures = new ScheduledFuture<?>[n];
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++){
+                futures[i] = executor.schedule(NOOP, 3600000 + delays[i] % 3600000, TimeUnit.MILLISECONDS);
+            }
+            for (int j = 1; j <= RESCHEDULES; j++){
+                for (int i = 0; i < n; i++){
+                    futures[i].cancel(false);
+                    futures[i] = executor.schedule(NOOP, 3600000 + delays[j * n + i] % 3600000, TimeUnit.MILLISECONDS);
+                }
+            }
+            long time = System.nanoTime() - start;
+            executor.shutdownNow();
+            if (round > 0){
+                best = Math.min(best, time);
+            }
+        }
+        System.out.println(String.format("%-28s %8d ms", "ScheduledThreadPoolExecutor", best / 1000000));
+    }
+}
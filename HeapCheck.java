@@ -0,0 +1,365 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * randomized checks of the heaps against reference collections with a fixed seed, run with
+ * java HeapCheck [number of rounds]. a failed check throws an IllegalStateException.
+ */
+public class HeapCheck {
+    private static final long SEED = 42;
+    private static final int OPERATIONS = 2000; // operations in each round.
+    private static final int MAX_KEY = 1000; // small keys so there are many equal keys.
+    private static final int[] CAPACITIES = {2, 16, 100}; // memory capacities of the spilling heaps.
+    private static final int HANDLES = 64; // number of recently inserted nodes kept for decreaseKey and delete.
+    private static final int BURST = 20000; // inserts before the first round, at capacity 2 level 1 runs are merged.
+    private static final int BUFFERED_CAPACITY = 16; // capacity of the spilling heaps whose streams are checked.
+
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        exact("BinomialHeap", BinomialHeap::new, rounds);
+        exact("FibonacciHeap", FibonacciHeap::new, rounds);
+        int spillingRounds = Math.max(1, rounds / 10); // every spilling round writes hundreds of run files.
+        for (int capacity : CAPACITIES){
+            spilling("SpillingHeap(BinomialHeap, " + capacity + ")", BinomialHeap::new, capacity, spillingRounds);
+            spilling("SpillingHeap(FibonacciHeap, " + capacity + ")", FibonacciHeap::new, capacity, spillingRounds);
+            spilling("SpillingHeap(MinMaxHeap, " + capacity + ")", MinMaxHeap::new, capacity, spillingRounds);
+        }
+        Path directory = Files.createTempDirectory("heapcheck");
+        streams("BinomialHeap", BinomialHeap::new, rounds);
+        streams("FibonacciHeap", FibonacciHeap::new, rounds);
+        streams("MinMaxHeap", MinMaxHeap::new, rounds);
+        streams("SoftHeap(0.1)", () -> new SoftHeap<>(0.1), rounds);
+        streams("SoftHeap(0.01)", () -> new SoftHeap<>(0.01), rounds);
+        streams("SpillingHeap(FibonacciHeap)",
+                () -> new SpillingHeap<>(new FibonacciHeap<>(), OPERATIONS, SpillingHeap.INTEGER_CODEC, directory),
+                rounds);
+        bufferedStreams("SpillingHeap(BinomialHeap)", BinomialHeap::new, directory, rounds);
+        bufferedStreams("SpillingHeap(FibonacciHeap)", FibonacciHeap::new, directory, rounds);
+        bufferedStreams("SpillingHeap(MinMaxHeap)", MinMaxHeap::new, directory, rounds);
+        Files.delete(directory);
+    }
+
+    /**
+     * random inserts, extractMin, unions with another heap and drains to empty, compared with a priority queue of the
+     * keys after each operation.
+     * @param name the name to report.
+     * @param heaps creates an empty heap.
+     * @param rounds the number of rounds.
+     */
+    static void exact(String name, Supplier<Heap<Integer>> heaps, int rounds) {
+        Random random = new Random(SEED);
+        for (int round = 0; round < rounds; round++){
+            Heap<Integer> H = heaps.get();
+            PriorityQueue<Integer> reference = new PriorityQueue<>();
+            for (int op = 0; op < OPERATIONS; op++){
+                int choice = random.nextInt(20);
+                if (choice < 10){
+                    int key = random.nextInt(MAX_KEY);
+                    H.insert(new Node<>(op, key));
+                    reference.add(key);
+                }else if (choice < 16){
+                    extractMin(name, H, reference);
+                }else if (choice < 19){
+//                    the other heap may be empty, and so may this one.
+                    Heap<Integer> other = heaps.get();
+                    for (int i = random.nextInt(20); i > 0; i--){
+                        int key = random.nextInt(MAX_KEY);
+                        other.insert(new Node<>(op, key));
+                        reference.add(key);
+                    }
+                    H.union(other);
+                }else {
+                    while (!reference.isEmpty()){
+                        extractMin(name, H, reference);
+                    }
+                }
+                check(H.getSize() == reference.size(), name + " size after operation " + op);
+                Node<Integer> min = H.minimum();
+                check(min == null ? reference.isEmpty() : min.getKey() == reference.peek(),
+                        name + " minimum after operation " + op);
+            }
+            while (!reference.isEmpty()){
+                extractMin(name, H, reference);
+            }
+            check(H.getSize() == 0 && H.minimum() == null && H.extractMin() == null, name + " drained heap not empty");
+        }
+        System.out.println(String.format("%-16s %d rounds ok", name, rounds));
+    }
+
+    /**
+     * random inserts, extractMin, decreaseKey and delete on a spilling heap compared with a multiset of the keys. the
+     * data of each node is its id, so nodes read back from disk are checked to carry the key of their id. decreaseKey
+     * and delete go to recently inserted nodes and may be refused if the node was written to disk, which leaves the
+     * heap unchanged. the first round starts with BURST inserts so runs are merged past level 0. every round ends by
+     * closing the heap, half of them after draining it, and no run file may be left.
+     * @param name the name to report.
+     * @param memories creates an empty memory heap.
+     * @param capacity the capacity of the memory heap.
+     * @param rounds the number of rounds.
+     */
+    static void spilling(String name, Supplier<Heap<Integer>> memories, int capacity, int rounds) throws IOException {
+        Random random = new Random(SEED);
+        Path directory = Files.createTempDirectory("heapcheck");
+        int refused = 0;
+        for (int round = 0; round < rounds; round++){
+            SpillingHeap<Integer> H = new SpillingHeap<>(memories.get(), capacity, SpillingHeap.INTEGER_CODEC,
+                    directory);
+            TreeMap<Integer, Integer> reference = new TreeMap<>(); // the number of nodes with each key.
+            HashMap<Integer, Integer> keys = new HashMap<>(); // the current key of each id in the heap.
+            ArrayList<Node<Integer>> handles = new ArrayList<>();
+            for (int i = 0; round == 0 && i < BURST; i++){
+                insert(H, new Node<>(OPERATIONS + i, random.nextInt(MAX_KEY)), reference, keys, handles);
+            }
+            for (int op = 0; op < OPERATIONS; op++){
+                int choice = random.nextInt(20);
+                if (choice < 10){
+                    insert(H, new Node<>(op, random.nextInt(MAX_KEY)), reference, keys, handles);
+                }else if (choice < 15){
+                    extractMin(name, H, reference, keys, handles);
+                }else if (!handles.isEmpty()){
+//                    a binomial heap moves data between nodes, so a handle stands for the id it holds now.
+                    Node<Integer> node = handles.get(random.nextInt(handles.size()));
+                    int id = node.getData();
+                    int old = node.getKey();
+                    int size = H.getSize();
+                    try {
+                        if (choice < 18){
+                            int key = random.nextInt(old + 1);
+                            H.decreaseKey(node, key);
+                            check(keys.get(id) == old, name + " handle out of date");
+                            add(reference, old, -1);
+                            add(reference, key, 1);
+                            keys.put(id, key);
+                        }else {
+                            Node<Integer> deleted = H.delete(node);
+                            check(deleted.getData() == id && keys.get(id) == old, name + " delete");
+                            handles.removeIf(x -> x == deleted);
+                            add(reference, old, -1);
+                            keys.remove(id);
+                        }
+                    } catch (InvalidParameterException e) {
+                        check(H.getSize() == size && node.getKey() == old, name + " refused operation changed heap");
+                        handles.remove(node);
+                        refused++;
+                    }
+                }
+                check(H.getSize() == keys.size(), name + " size after operation " + op);
+            }
+            if (round % 2 == 0){
+                while (!keys.isEmpty()){
+                    extractMin(name, H, reference, keys, handles);
+                }
+                check(H.extractMin() == null && H.getRunCount() == 0, name + " drained heap not empty");
+            }
+            H.close();
+            try (Stream<Path> files = Files.list(directory)){
+                check(files.count() == 0, name + " run files left after close");
+            }
+        }
+        Files.delete(directory);
+        System.out.println(String.format("%-32s %d rounds ok, %d operations refused on nodes on disk", name, rounds,
+                refused));
+    }
+
+    /**
+     * fill heaps with random inserts, extractMin and, on heaps that support it, decreaseKey, then compare their streams
+     * with the nodes left in them.
+     * @param name the name to report.
+     * @param heaps creates an empty heap.
+     * @param rounds the number of rounds.
+     */
+    static void streams(String name, Supplier<Heap<Integer>> heaps, int rounds) {
+        Random random = new Random(SEED);
+        for (int round = 0; round < rounds; round++){
+            Heap<Integer> H = heaps.get();
+            HashMap<Integer, Integer> keys = new HashMap<>(); // the key of each id in the heap.
+            ArrayList<Node<Integer>> handles = new ArrayList<>();
+            int operations = random.nextInt(OPERATIONS);
+            for (int op = 0; op < operations; op++){
+                int choice = random.nextInt(10);
+                if (choice < 6){
+                    Node<Integer> node = new Node<>(op, random.nextInt(MAX_KEY));
+                    H.insert(node);
+                    keys.put(op, node.getKey());
+                    handles.add(node);
+                }else if (choice < 8 || H instanceof SoftHeap){
+                    Node<Integer> min = H.extractMin();
+                    if (min != null){
+                        keys.remove(min.getData());
+                        handles.removeIf(x -> x == min);
+                    }
+                }else if (!handles.isEmpty()){
+//                    a binomial heap moves data between nodes, so a handle stands for the id it holds now.
+                    Node<Integer> node = handles.get(random.nextInt(handles.size()));
+                    int id = node.getData();
+                    int key = random.nextInt(node.getKey() + 1);
+                    H.decreaseKey(node, key);
+                    keys.put(id, key);
+                }
+            }
+            compareStreams(name, H, keys);
+        }
+        System.out.println(String.format("%-32s %d rounds of streams ok", name, rounds));
+    }
+
+    /**
+     * compare the streams of spilling heaps with nodes in memory, in the buffer and on disk. a full memory heap keeps
+     * the lower half of its nodes and writes the rest to a run, later nodes above the smallest key on disk go to the
+     * buffer. iterating is refused while there are runs, closing the heap drops them and keeps the nodes in memory and
+     * in the buffer, which the streams are compared with.
+     * @param name the name to report.
+     * @param memories creates an empty memory heap.
+     * @param directory the directory to write runs to.
+     * @param rounds the number of rounds.
+     */
+    static void bufferedStreams(String name, Supplier<Heap<Integer>> memories, Path directory, int rounds)
+            throws IOException {
+        Random random = new Random(SEED);
+        for (int round = 0; round < rounds; round++){
+            SpillingHeap<Integer> H = new SpillingHeap<>(memories.get(), BUFFERED_CAPACITY,
+                    SpillingHeap.INTEGER_CODEC, directory);
+            HashMap<Integer, Integer> keys = new HashMap<>(); // the key of each id in memory or in the buffer.
+//            distinct keys, so which nodes are written to disk doesn't depend on ties.
+            List<Integer> distinct = random.ints(0, MAX_KEY).distinct().limit(3 * BUFFERED_CAPACITY).boxed()
+                    .collect(Collectors.toList());
+            int id = 0;
+            ArrayList<Integer> first = new ArrayList<>(distinct.subList(0, BUFFERED_CAPACITY + 1));
+            for (int key : first){
+                H.insert(new Node<>(id, key));
+                keys.put(id++, key);
+            }
+            Collections.sort(first);
+            int keep = first.size() / 2;
+            int limit = first.get(keep);
+            keys.values().removeIf(key -> key >= limit);
+//            below the limit fill the memory heap up to its capacity, above it stay under the size of a run.
+            int low = random.nextInt(BUFFERED_CAPACITY - keep + 1);
+            int high = random.nextInt(BUFFERED_CAPACITY);
+            for (int key : distinct.subList(BUFFERED_CAPACITY + 1, distinct.size())){
+                if (key < limit ? low-- > 0 : high-- > 0){
+                    H.insert(new Node<>(id, key));
+                    keys.put(id++, key);
+                }
+            }
+            check(H.getRunCount() == 1, name + " expected one run");
+            try {
+                H.stream();
+                check(false, name + " stream with runs on disk");
+            } catch (IllegalStateException e) {
+                check(e.getMessage().startsWith("Nodes on disk"), name + " stream with runs on disk");
+            }
+            H.close();
+            check(H.getSize() == keys.size(), name + " size after close");
+            compareStreams(name, H, keys);
+        }
+        System.out.println(String.format("%-32s %d rounds of buffered streams ok", name, rounds));
+    }
+
+    /**
+     * compare sortedStream, stream and a parallel stream of a heap with the nodes that should be in it, and check that
+     * the heap is unchanged.
+     * @param name the name to report.
+     * @param H the heap.
+     * @param keys the key of each id in the heap.
+     */
+    private static void compareStreams(String name, Heap<Integer> H, HashMap<Integer, Integer> keys) {
+        List<Integer> expected = new ArrayList<>(keys.values());
+        Collections.sort(expected);
+        List<Node<Integer>> sorted = H.sortedStream().collect(Collectors.toList());
+        check(sorted.stream().map(Node::getKey).collect(Collectors.toList()).equals(expected),
+                name + " sortedStream keys");
+        check(sameNodes(sorted, keys), name + " sortedStream nodes");
+        check(sameNodes(H.stream().collect(Collectors.toList()), keys), name + " stream");
+        check(sameNodes(H.stream().parallel().collect(Collectors.toList()), keys), name + " parallel stream");
+        check(H.getSize() == keys.size(), name + " size after streams");
+    }
+
+    /**
+     * @param nodes nodes.
+     * @param keys the key of each id.
+     * @return true if the nodes are exactly the ids with their keys.
+     */
+    private static boolean sameNodes(List<Node<Integer>> nodes, HashMap<Integer, Integer> keys) {
+        HashSet<Integer> seen = new HashSet<>();
+        for (Node<Integer> node : nodes){
+            Integer key = keys.get(node.getData());
+            if (!seen.add(node.getData()) || key == null || key != node.getKey()){
+                return false;
+            }
+        }
+        return seen.size() == keys.size();
+    }
+
+    /**
+     * insert a node into a spilling heap and the reference and keep it as a handle.
+     */
+    private static void insert(SpillingHeap<Integer> H, Node<Integer> node, TreeMap<Integer, Integer> reference,
+                               HashMap<Integer, Integer> keys, ArrayList<Node<Integer>> handles) {
+        H.insert(node);
+        add(reference, node.getKey(), 1);
+        keys.put(node.getData(), node.getKey());
+        handles.add(node);
+        if (handles.size() > HANDLES){
+            handles.remove(0);
+        }
+    }
+
+    /**
+     * extract the minimum of a spilling heap, check it against the reference and the key of its id and drop it from
+     * the handles.
+     */
+    private static void extractMin(String name, SpillingHeap<Integer> H, TreeMap<Integer, Integer> reference,
+                                   HashMap<Integer, Integer> keys, ArrayList<Node<Integer>> handles) {
+        Node<Integer> min = H.extractMin();
+        if (min == null){
+            check(keys.isEmpty(), name + " extractMin returned null");
+            return;
+        }
+        check(min.getKey() == reference.firstKey(), name + " extractMin");
+        Integer key = keys.remove(min.getData());
+        check(key != null && key == min.getKey(), name + " node read back with wrong key or data");
+        add(reference, min.getKey(), -1);
+        handles.removeIf(x -> x == min);
+    }
+
+    /**
+     * add a count to a key of a multiset, keys whose count drops to 0 are removed.
+     */
+    private static void add(TreeMap<Integer, Integer> multiset, int key, int count) {
+        if (multiset.merge(key, count, Integer::sum) == 0){
+            multiset.remove(key);
+        }
+    }
+
+    /**
+     * extract the minimum of a heap and of the reference and compare their keys.
+     */
+    private static void extractMin(String name, Heap<Integer> H, PriorityQueue<Integer> reference) {
+        Node<Integer> min = H.extractMin();
+        Integer expected = reference.poll();
+        check(min == null ? expected == null : expected != null && min.getKey() == expected, name + " extractMin");
+    }
+
+    /**
+     * @param ok the result of a check.
+     * @param what what was checked, for the message.
+     */
+    static void check(boolean ok, String what) {
+        if (!ok){
+            throw new IllegalStateException("Check failed: " + what);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * a min-max heap stores nodes in an array ordered as a complete binary tree whose levels alternate between min levels
+ * and max levels. a node on a min level has the minimal key of its subtree and a node on a max level has the maximal
+ * key of its subtree, so both the minimum and the maximum are found in O(1) and updated in O(log n). every node keeps
+ * its position in the array, so it can be used as a handle for decreaseKey and delete.
+ * @param <T>
+ */
+public class MinMaxHeap<T> extends Heap<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Node<T>[] nodes; // the children of i are at 2i+1 and 2i+2.
+
+    /**
+     * constructor.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    MinMaxHeap() {
+        root = null;
+        size = 0;
+        nodes = new Node[INITIAL_CAPACITY];
+    }
+
+    /**
+     * insert new node into the heap.
+     * @param node the node to be inserted.
+     */
+    @Override
+    void insert(Node<T> node) {
+        if (node == null){
+            return;
+        }
+        if (size == nodes.length){
+            nodes = Arrays.copyOf(nodes, 2 * size);
+        }
+        place(node, size);
+        size++;
+        pushUp(size - 1);
+    }
+
+    /**
+     *
+     * @return the node with minimal key in heap.
+     */
+    @Override
+    Node<T> minimum() {
+        return size == 0 ? null : nodes[0];
+    }
+
+    /**
+     *
+     * @return the node with maximal key in heap.
+     */
+    Node<T> maximum() {
+        return size == 0 ? null : nodes[maxIndex()];
+    }
+
+    /**
+     * remove the node with minimal key in heap from the heap.
+     * @return the node with minimal key in heap.
+     */
+    @Override
+    Node<T> extractMin() {
+        return size == 0 ? null : remove(0);
+    }
+
+    /**
+     * remove the node with maximal key in heap from the heap.
+     * @return the node with maximal key in heap.
+     */
+    Node<T> extractMax() {
+        return size == 0 ? null : remove(maxIndex());
+    }
+
+    /**
+     * combine two heaps together.
+     * @param H the heap to combine with.
+     */
+    @Override
+    void union(Heap<T> H) {
+        if (H == null || H == this){
+            return;
+        }
+        if (H instanceof MinMaxHeap){
+            MinMaxHeap<T> M = (MinMaxHeap<T>) H;
+            for (int i = 0; i < M.size; i++){
+                insert(M.nodes[i]);
+                M.nodes[i] = null;
+            }
+            M.size = 0;
+        }else {
+            while (H.getSize() > 0){
+                insert(H.extractMin());
+            }
+        }
+    }
+
+    /**
+     * decrease the key of a given node in the heap to a given value.
+     * @param node the node whose key we are decreasing.
+     * @param key the new value of the key, must be lower than current value and non-negative.
+     * @return the node.
+     */
+    @Override
+    Node<T> decreaseKey(Node<T> node, int key) {
+        if (key > node.getKey() || key < 0 ){
+            throw new InvalidParameterException("New key must be less than existing key and non-negative");
+        }
+        int i = indexOf(node);
+        node.setKey(key);
+        pushDown(i);
+        pushUp(node.getIndex());
+        return node;
+    }
+
+    /**
+     * delete the given node from the heap
+     * @param node to delete.
+     * @return the node
+     */
+    @Override
+    Node<T> delete(Node<T> node) {
+        return remove(indexOf(node));
+    }
+
+    /**
+     *
+     * @return the index of the node with maximal key.
+     */
+    private int maxIndex() {
+        if (size <= 2){
+            return size - 1;
+        }
+        return nodes[1].getKey() >= nodes[2].getKey() ? 1 : 2;
+    }
+
+    /**
+     * find the position of a node, making sure it belongs to this heap.
+     * @param node a node in the heap.
+     * @return the index of the node.
+     */
+    private int indexOf(Node<T> node) {
+        int i = node.getIndex();
+        if (i < 0 || i >= size || nodes[i] != node){
+            throw new InvalidParameterException("Node is not in the heap");
+        }
+        return i;
+    }
+
+    /**
+     * remove the node at a given index, the last node takes its place.
+     * @param i the index.
+     * @return the removed node.
+     */
+    private Node<T> remove(int i) {
+        Node<T> node = nodes[i];
+        size--;
+        if (i != size){
+            Node<T> last = nodes[size];
+            place(last, i);
+            pushDown(i);
+            pushUp(last.getIndex());
+        }
+        nodes[size] = null;
+        node.setIndex(-1);
+        return node;
+    }
+
+    /**
+     * put a node at a given index.
+     * @param node the node.
+     * @param i the index.
+     */
+    private void place(Node<T> node, int i) {
+        nodes[i] = node;
+        node.setIndex(i);
+    }
+
+    /**
+     * swap the nodes at two indices.
+     */
+    private void swap(int i, int j) {
+        Node<T> placeholder = nodes[i];
+        place(nodes[j], i);
+        place(placeholder, j);
+    }
+
+    /**
+     * @param i an index.
+     * @return true if the index is on a min level.
+     */
+    private static boolean isMinLevel(int i) {
+        return (31 - Integer.numberOfLeadingZeros(i + 1)) % 2 == 0;
+    }
+
+    /**
+     * @return true if the key at i should be above the key at j on a level of the given kind.
+     */
+    private boolean above(int i, int j, boolean min) {
+        return min ? nodes[i].getKey() < nodes[j].getKey() : nodes[i].getKey() > nodes[j].getKey();
+    }
+
+    /**
+     * move a node up the tree until it is in place with its ancestors.
+     * @param i the index of the node.
+     */
+    private void pushUp(int i) {
+        if (i == 0){
+            return;
+        }
+        boolean min = isMinLevel(i);
+        int parent = (i - 1) / 2;
+//        a node that belongs on the other kind of level than its own moves to its parent's level.
+        if (above(i, parent, !min)){
+            swap(i, parent);
+            i = parent;
+            min = !min;
+        }
+        while (i > 2 && above(i, (i - 3) / 4, min)){
+            swap(i, (i - 3) / 4);
+            i = (i - 3) / 4;
+        }
+    }
+
+    /**
+     * move a node down the tree until it is in place with its descendants.
+     * @param i the index of the node.
+     */
+    private void pushDown(int i) {
+        boolean min = isMinLevel(i);
+        while (2 * i + 1 < size){
+//            find the best of the children and grandchildren.
+            int m = 2 * i + 1;
+            for (int j : new int[]{2 * i + 2, 4 * i + 3, 4 * i + 4, 4 * i + 5, 4 * i + 6}){
+                if (j < size && above(j, m, min)){
+                    m = j;
+                }
+            }
+            if (!above(m, i, min)){
+                return;
+            }
+            swap(m, i);
+            if (m <= 2 * i + 2){
+                return;
+            }
+//            a grandchild moved down past its parent which is on the other kind of level.
+            int parent = (m - 1) / 2;
+            if (above(m, parent, !min)){
+                swap(m, parent);
+            }
+            i = m;
+        }
+    }
+
+    /**
+     * pass each child of a node to an action, or the root if the node is null.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    @Override
+    void forEachChild(Node<T> node, Consumer<Node<T>> action) {
+        if (node == null){
+            if (size > 0){
+                action.accept(nodes[0]);
+            }
+            return;
+        }
+        int i = node.getIndex();
+        for (int j = 2 * i + 1; j <= 2 * i + 2 && j < size; j++){
+            action.accept(nodes[j]);
+        }
+    }
+
+    /**
+     * pass to an action the nodes that may come right after a node in ascending order of key. a node on a min level is
+     * followed by its children and grandchildren, the grandchildren of a node on a max level were already passed by
+     * its parent.
+     * @param node the node, or null for the root.
+     * @param action the action.
+     */
+    @Override
+    void forEachSuccessor(Node<T> node, Consumer<Node<T>> action) {
+        if (node == null){
+            forEachChild(null, action);
+            return;
+        }
+        int i = node.getIndex();
+        if (!isMinLevel(i)){
+            return;
+        }
+        for (int j = 2 * i + 1; j <= 2 * i + 2 && j < size; j++){
+            action.accept(nodes[j]);
+        }
+        for (int j = 4 * i + 3; j <= 4 * i + 6 && j < size; j++){
+            action.accept(nodes[j]);
+        }
+    }
+
+    void drawHeap(){
+        int level = 1;
+        for (int i = 0; i < size; i++){
+            System.out.print(String.format("%6d", nodes[i].getKey()));
+            if (i + 2 == 2 * level){
+                System.out.println();
+                level *= 2;
+            }
+        }
+        System.out.println();
+    }
+}
@@ -14,6 +14,7 @@ public class Node <T> {
     private Node<T> left_sibling; // the node to the left of the node
     private Node<T> child; // the child of the node, all other children accessed via this node
     private Boolean mark; // signifies in fibonacci heap if this node has lost a child.
+    private int index; // the position of the node in array based heaps.
 
     /**
      * constructor for node
@@ -94,6 +95,14 @@ public class Node <T> {
         this.degree = degree;
     }
 
+    /**
+     * setter for index
+     * @param index new index value
+     */
+    protected void setIndex(int index) {
+        this.index = index;
+    }
+
     /**
      * getter for key
      * @return key value
@@ -158,6 +167,14 @@ public class Node <T> {
         return degree;
     }
 
+    /**
+     * getter for index
+     * @return index value
+     */
+    protected int getIndex() {
+        return index;
+    }
+
     /**
      * link the roots of two trees in a binomial heap into one tree.
      * @param newChild
@@ -0,0 +1,418 @@
+import java.security.InvalidParameterException;
+import java.util.LinkedList;
+import java.util.function.Consumer;
+
+import static java.lang.Math.*;
+
+/**
+ * a soft heap (Kaplan and Zwick's take on Chazelle's soft heap) stores nodes in binary trees that are built by linking
+ * trees of equal rank, much like the trees of a binomial heap. each tree node holds a list of nodes that share a common
+ * key, which may be larger than their own key, such nodes are corrupted. at any time at most epsilon * (number of
+ * inserts) nodes are corrupted, in return extractMin takes O(1) amortized time.
+ * @param <T>
+ */
+public class SoftHeap<T> extends Heap<T> {
+    public static final double DEFAULT_EPSILON = 0.1;
+
+    private final double epsilon; // the error rate of the heap.
+    private final int r; // trees of rank up to r never corrupt their nodes.
+    private Tree<T> first; // the tree with the lowest rank, trees are kept in ascending order of rank.
+    private int rank; // the rank of the highest tree.
+    private boolean lastCorrupted; // whether the key of the last node returned was raised to a larger ckey.
+
+    /**
+     * a node of a soft heap tree, holds a list of heap nodes linked by their right_sibling.
+     * @param <T>
+     */
+    private static class SoftNode<T> {
+        private Node<T> first; // first node in the list
+        private Node<T> last; // last node in the list
+        private int count; // number of nodes in the list
+        private int ckey; // common key of the list, not lower than the key of any node in it
+        private int rank;
+        private int targetSize; // number of nodes the list should hold
+        private SoftNode<T> left;
+        private SoftNode<T> right;
+
+        private boolean isLeaf() {
+            return left == null && right == null;
+        }
+    }
+
+    /**
+     * an entry in the list of trees of the heap.
+     * @param <T>
+     */
+    private static class Tree<T> {
+        private SoftNode<T> root;
+        private Tree<T> next;
+        private Tree<T> prev;
+        private Tree<T> suffixMin; // the tree with minimal ckey from this tree to the end of the list
+    }
+
+    /**
+     * constructor with the default error rate.
+     */
+    SoftHeap() {
+        this(DEFAULT_EPSILON);
+    }
+
+    /**
+     * constructor.
+     * @param epsilon the error rate, the fraction of inserted nodes that may be corrupted, must be in (0, 1).
+     */
+    SoftHeap(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)){
+            throw new InvalidParameterException("Epsilon must be between 0 and 1");
+        }
+        this.epsilon = epsilon;
+        r = (int) ceil(log(1 / epsilon) / log(2)) + 5;
+        root = null;
+        size = 0;
+    }
+
+    /**
+     *
+     * @return the error rate of the heap.
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     *
+     * @return true if the key of the node last returned by minimum or extractMin was raised to the larger common key
+     * (ckey) of its list. it says nothing about the order of the heap, nodes can come out of order whether it is true
+     * or false.
+     */
+    public boolean lastCorrupted() {
+        return lastCorrupted;
+    }
+
+    /**
+     * insert new node into the heap.
+     * @param node the node to be inserted.
+     */
+    @Override
+    void insert(Node<T> node) {
+        if (node == null){
+            return;
+        }
+        node.setRight_sibling(null);
+        node.setParent(null);
+        SoftNode<T> x = new SoftNode<>();
+        x.first = node;
+        x.last = node;
+        x.count = 1;
+        x.ckey = node.getKey();
+        x.rank = 0;
+        x.targetSize = 1;
+        Tree<T> tree = new Tree<>();
+        tree.root = x;
+        tree.suffixMin = tree;
+        meld(tree, 0);
+        size++;
+    }
+
+    /**
+     *
+     * @return a node whose key is minimal up to corruption, see lastCorrupted.
+     */
+    @Override
+    Node<T> minimum() {
+        if (first == null){
+            return null;
+        }
+        SoftNode<T> x = first.suffixMin.root;
+        lastCorrupted = x.first.getKey() < x.ckey;
+        return x.first;
+    }
+
+    /**
+     * remove the node with minimal key, up to corruption, from the heap.
+     * @return the node removed, see lastCorrupted.
+     */
+    @Override
+    Node<T> extractMin() {
+        if (first == null){
+            return null;
+        }
+        Tree<T> tree = first.suffixMin;
+        SoftNode<T> x = tree.root;
+        Node<T> min = x.first;
+        x.first = min.getRight_sibling();
+        if (x.first == null){
+            x.last = null;
+        }
+        x.count--;
+        min.setRight_sibling(null);
+        lastCorrupted = min.getKey() < x.ckey;
+//        refill the list once it is half empty.
+        if (2 * x.count <= x.targetSize){
+            if (!x.isLeaf()){
+                sift(x);
+                updateSuffixMin(tree);
+            }else if (x.count == 0){
+                removeTree(tree);
+                updateSuffixMin(tree.prev);
+            }
+        }
+        size--;
+        return min;
+    }
+
+    /**
+     * combine two heaps together.
+     * @param H the heap to combine with, must be a soft heap.
+     */
+    @Override
+    void union(Heap<T> H) {
+        if (H == null){
+            return;
+        }
+        if (!(H instanceof SoftHeap)){
+            throw new InvalidParameterException("A soft heap can only be combined with another soft heap");
+        }
+        SoftHeap<T> S = (SoftHeap<T>) H;
+        meld(S.first, S.rank);
+        size += S.size;
+        S.first = null;
+        S.rank = 0;
+        S.size = 0;
+    }
+
+    /**
+     * not supported, nodes in a soft heap may share a key.
+     */
+    @Override
+    Node<T> decreaseKey(Node<T> node, int key) {
+        throw new UnsupportedOperationException("A soft heap does not support decreaseKey");
+    }
+
+    /**
+     * not supported, nodes in a soft heap may share a key.
+     */
+    @Override
+    Node<T> delete(Node<T> node) {
+        throw new UnsupportedOperationException("A soft heap does not support delete");
+    }
+
+    /**
+     * add the trees of another list to the heap, then link trees of equal rank.
+     * @param otherFirst the first tree of the other list.
+     * @param otherRank the rank of the highest tree in the other list.
+     */
+    private void meld(Tree<T> otherFirst, int otherRank) {
+        if (otherFirst == null){
+            return;
+        }
+        if (first == null){
+            first = otherFirst;
+            rank = otherRank;
+            return;
+        }
+        int k = min(rank, otherRank);
+        if (rank <= otherRank){
+            first = mergeInto(first, otherFirst);
+        }else {
+            first = mergeInto(otherFirst, first);
+        }
+        rank = max(rank, otherRank);
+        repeatedCombine(k);
+    }
+
+    /**
+     * insert the trees of the lower list into the higher list in ascending order of rank.
+     * @param lower the first tree of the list whose highest rank is not above the other's.
+     * @param higher the first tree of the other list.
+     * @return the first tree of the merged list.
+     */
+    private Tree<T> mergeInto(Tree<T> lower, Tree<T> higher) {
+        Tree<T> merged = higher;
+        Tree<T> x = lower;
+        Tree<T> y = higher;
+        while (x != null){
+            while (y.root.rank < x.root.rank){
+                y = y.next;
+            }
+            Tree<T> next = x.next;
+            x.prev = y.prev;
+            x.next = y;
+            if (y.prev != null){
+                y.prev.next = x;
+            }else {
+                merged = x;
+            }
+            y.prev = x;
+            x = next;
+        }
+        return merged;
+    }
+
+    /**
+     * link trees of equal rank until there is at most one tree of each rank.
+     * @param k the highest rank that may still have two trees.
+     */
+    private void repeatedCombine(int k) {
+        Tree<T> x = first;
+        while (x.next != null){
+            if (x.root.rank == x.next.root.rank){
+//                if there are three trees of this rank link the last two.
+                if (x.next.next == null || x.next.next.root.rank != x.root.rank){
+                    x.root = combine(x.root, x.next.root);
+                    removeTree(x.next);
+                    continue;
+                }
+            }else if (x.root.rank > k){
+                break;
+            }
+            x = x.next;
+        }
+        if (x.root.rank > rank){
+            rank = x.root.rank;
+        }
+        updateSuffixMin(x);
+    }
+
+    /**
+     * link two tree nodes of equal rank under a new node.
+     * @param x a tree node.
+     * @param y a tree node of the same rank.
+     * @return the new node.
+     */
+    private SoftNode<T> combine(SoftNode<T> x, SoftNode<T> y) {
+        SoftNode<T> z = new SoftNode<>();
+        z.left = x;
+        z.right = y;
+        z.rank = x.rank + 1;
+        z.targetSize = z.rank <= r ? 1 : (3 * x.targetSize + 1) / 2;
+        sift(z);
+        return z;
+    }
+
+    /**
+     * fill the list of a tree node by moving up the lists of its children with minimal ckey.
+     * @param x the node to fill.
+     */
+    private void sift(SoftNode<T> x) {
+        while (x.count < x.targetSize && !x.isLeaf()){
+            if (x.left == null || (x.right != null && x.left.ckey > x.right.ckey)){
+                SoftNode<T> placeholder = x.left;
+                x.left = x.right;
+                x.right = placeholder;
+            }
+            SoftNode<T> y = x.left;
+            if (x.first == null){
+                x.first = y.first;
+            }else {
+                x.last.setRight_sibling(y.first);
+            }
+            x.last = y.last;
+            x.count += y.count;
+            x.ckey = y.ckey;
+            y.first = null;
+            y.last = null;
+            y.count = 0;
+            if (y.isLeaf()){
+                x.left = null;
+            }else {
+                sift(y);
+            }
+        }
+    }
+
+    /**
+     * remove a tree from the list of trees.
+     * @param tree the tree to remove.
+     */
+    private void removeTree(Tree<T> tree) {
+        if (tree.prev == null){
+            first = tree.next;
+        }else {
+            tree.prev.next = tree.next;
+        }
+        if (tree.next != null){
+            tree.next.prev = tree.prev;
+        }else {
+            rank = tree.prev == null ? 0 : tree.prev.root.rank;
+        }
+    }
+
+    /**
+     * recompute the suffix minimum of a tree and all trees before it.
+     * @param tree the last tree whose suffix minimum may have changed.
+     */
+    private void updateSuffixMin(Tree<T> tree) {
+        while (tree != null){
+            if (tree.next == null || tree.root.ckey <= tree.next.suffixMin.root.ckey){
+                tree.suffixMin = tree;
+            }else {
+                tree.suffixMin = tree.next.suffixMin;
+            }
+            tree = tree.prev;
+        }
+    }
+
+    /**
+     * pass every node of the heap to an action if the node is null, the nodes have no children. nodes are not heap
+     * ordered by their own keys, so a stream walks the list of each tree node and sortedIterator reads all the nodes up
+     * front.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    @Override
+    void forEachChild(Node<T> node, Consumer<Node<T>> action) {
+        if (node != null){
+            return;
+        }
+        LinkedList<SoftNode<T>> stack = new LinkedList<SoftNode<T>>();
+        for (Tree<T> tree = first; tree != null; tree = tree.next){
+            stack.addFirst(tree.root);
+            while (!stack.isEmpty()){
+                SoftNode<T> x = stack.removeFirst();
+                for (Node<T> y = x.first; y != null; y = y.getRight_sibling()){
+                    action.accept(y);
+                }
+                if (x.left != null){
+                    stack.addFirst(x.left);
+                }
+                if (x.right != null){
+                    stack.addFirst(x.right);
+                }
+            }
+        }
+    }
+
+    void drawHeap(){
+        LinkedList<SoftNode<T>> current = new LinkedList<SoftNode<T>>();
+        LinkedList<SoftNode<T>> next = new LinkedList<SoftNode<T>>();
+        String string;
+        SoftNode<T> x;
+        Tree<T> y = first;
+        while (y != null){
+            current.addLast(y.root);
+            while (!current.isEmpty()){
+                x = current.removeFirst();
+                if (x.left != null){
+                    next.addLast(x.left);
+                }
+                if (x.right != null){
+                    next.addLast(x.right);
+                }
+                int numberOfSpaces = (int) Math.pow(2, x.rank);
+                if (numberOfSpaces == 1){
+                    numberOfSpaces = 2;
+                }
+                string = String.format("%" + 3*numberOfSpaces + "s", x.ckey + "x" + x.count);
+                System.out.print(string);
+                if (current.isEmpty()){
+                    System.out.println();
+                    LinkedList<SoftNode<T>> placeholder = current;
+                    current = next;
+                    next = placeholder;
+                }
+            }
+            y = y.next;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * an external memory heap that keeps the nodes with low keys in an in memory heap and writes nodes with high keys to
+ * sorted runs on disk. all keys in memory are at most a limit and all keys on disk are at least it. when the memory
+ * heap runs empty the runs are merged back lazily, a batch at a time, so reads and writes stay sequential.
+ * runs are grouped in levels like in a sequence heap: new runs are on level 0 and once a level has MAX_RUNS runs they
+ * are merged into one run of the next level, older and larger runs are left alone. each node is rewritten at most once
+ * per level, and there are log(n / capacity) / log(MAX_RUNS) levels.
+ * nodes written to disk are read back as new nodes, so only nodes still in memory can be passed to decreaseKey and
+ * delete. call close to delete the run files.
+ * @param <T>
+ */
+public class SpillingHeap<T> extends Heap<T> implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 16; // size of the io buffer of each run.
+    private static final int MAX_RUNS = 64; // once a level has this many runs they are merged into one.
+
+    /**
+     * writes and reads the data of nodes to and from disk.
+     * @param <T>
+     */
+    interface Codec<T> {
+        void write(DataOutput out, T data) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * a codec for Integer data.
+     */
+    static final Codec<Integer> INTEGER_CODEC = new Codec<Integer>() {
+        @Override
+        public void write(DataOutput out, Integer data) throws IOException {
+            out.writeInt(data);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    /**
+     * a sorted run of nodes on disk, read one node at a time.
+     * @param <T>
+     */
+    private static class Run<T> {
+        private final Path file;
+        private final Codec<T> codec;
+        private final int level; // the number of merges the nodes of the run went through.
+        private Node<Run<T>> node; // the node of the run in runs.
+        private DataInputStream in;
+        private int remaining; // number of nodes not yet read
+        private Node<T> head; // the next node of the run
+
+        private Run(Path file, Codec<T> codec, int count, int level) throws IOException {
+            this.file = file;
+            this.codec = codec;
+            this.level = level;
+            remaining = count;
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES));
+            advance();
+        }
+
+        /**
+         * read the next node of the run, deletes the file once the run is exhausted.
+         */
+        private void advance() throws IOException {
+            if (remaining == 0){
+                head = null;
+                close();
+                return;
+            }
+            int key = in.readInt();
+            head = new Node<>(codec.read(in), key);
+            remaining--;
+        }
+
+        private void close() throws IOException {
+            if (in != null){
+                in.close();
+                in = null;
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private final Heap<T> memory; // the nodes with keys up to limit.
+    private final int capacity; // maximal number of nodes in memory heap.
+    private final Codec<T> codec;
+    private final Path directory; // where runs are written.
+    private final Set<Node<T>> resident; // the nodes of the memory heap.
+    private final ArrayList<Node<T>> buffer; // nodes with keys from limit not yet written to disk.
+    private final FibonacciHeap<Run<T>> runs; // the runs keyed by the key of their head.
+    private final ArrayList<ArrayList<Run<T>>> levels; // the runs of each level.
+    private int runCount;
+    private int limit; // keys in memory are at most limit, keys in buffer or on disk are at least limit.
+
+    /**
+     * constructor.
+     * @param memory an empty heap to hold the nodes in memory.
+     * @param capacity the maximal number of nodes kept in memory heap, the buffer holds as many.
+     * @param codec writes and reads the data of the nodes.
+     * @param directory the directory to write runs to.
+     */
+    SpillingHeap(Heap<T> memory, int capacity, Codec<T> codec, Path directory) {
+        if (memory == null || memory.getSize() != 0){
+            throw new InvalidParameterException("Memory heap must be empty");
+        }
+        if (capacity < 2){
+            throw new InvalidParameterException("Capacity must be at least 2");
+        }
+        this.memory = memory;
+        this.capacity = capacity;
+        this.codec = codec;
+        this.directory = directory;
+        resident = Collections.newSetFromMap(new IdentityHashMap<>());
+        buffer = new ArrayList<>();
+        runs = new FibonacciHeap<>();
+        levels = new ArrayList<>();
+        runCount = 0;
+        limit = Integer.MAX_VALUE;
+        root = null;
+        size = 0;
+    }
+
+    /**
+     *
+     * @return the number of nodes held in memory, including the buffer.
+     */
+    public int getMemorySize() {
+        return memory.getSize() + buffer.size();
+    }
+
+    /**
+     *
+     * @return the number of runs on disk.
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * insert new node into the heap.
+     * @param node the node to be inserted.
+     */
+    @Override
+    void insert(Node<T> node) {
+        if (node == null){
+            return;
+        }
+        size++;
+        if (node.getKey() <= limit){
+            toMemory(node);
+        }else {
+            toBuffer(node);
+        }
+    }
+
+    /**
+     *
+     * @return the node with minimal key in heap.
+     */
+    @Override
+    Node<T> minimum() {
+        if (memory.getSize() == 0 && size > 0){
+            refill();
+        }
+        return memory.minimum();
+    }
+
+    /**
+     * remove the node with minimal key in heap from the heap.
+     * @return the node with minimal key in heap.
+     */
+    @Override
+    Node<T> extractMin() {
+        if (size == 0){
+            return null;
+        }
+        if (memory.getSize() == 0){
+            refill();
+        }
+        Node<T> min = memory.extractMin();
+        resident.remove(min);
+        size--;
+        return min;
+    }
+
+    /**
+     * combine two heaps together.
+     * @param H the heap to combine with.
+     */
+    @Override
+    void union(Heap<T> H) {
+        if (H == null || H == this){
+            return;
+        }
+        while (H.getSize() > 0){
+            insert(H.extractMin());
+        }
+    }
+
+    /**
+     * decrease the key of a given node in the heap to a given value.
+     * @param node the node whose key we are decreasing, must still be in memory.
+     * @param key the new value of the key, must be lower than current value and non-negative.
+     * @return the node.
+     */
+    @Override
+    Node<T> decreaseKey(Node<T> node, int key) {
+        if (key > node.getKey() || key < 0 ){
+            throw new InvalidParameterException("New key must be less than existing key and non-negative");
+        }
+        if (resident.contains(node)){
+            return memory.decreaseKey(node, key);
+        }
+        removeFromBuffer(node);
+        node.setKey(key);
+        if (key <= limit){
+            toMemory(node);
+        }else {
+            toBuffer(node);
+        }
+        return node;
+    }
+
+    /**
+     * delete the given node from the heap
+     * @param node to delete, must still be in memory.
+     * @return the node
+     */
+    @Override
+    Node<T> delete(Node<T> node) {
+        if (resident.contains(node)){
+            node = memory.delete(node);
+            resident.remove(node);
+        }else {
+            removeFromBuffer(node);
+        }
+        size--;
+        return node;
+    }
+
+    /**
+     * close and delete all runs, the nodes in them are lost.
+     */
+    @Override
+    public void close() throws IOException {
+        while (runs.getSize() > 0){
+            Run<T> run = runs.extractMin().getData();
+            size -= run.remaining + 1;
+            run.close();
+        }
+        levels.clear();
+        runCount = 0;
+    }
+
+    /**
+     * add a node to the memory heap, spill the upper half of it if it is full.
+     * @param node the node.
+     */
+    private void toMemory(Node<T> node) {
+        memory.insert(node);
+        resident.add(node);
+        if (memory.getSize() > capacity){
+            spillMemory();
+        }
+    }
+
+    /**
+     * add a node to the buffer, write the buffer to disk if it is full.
+     * @param node the node.
+     */
+    private void toBuffer(Node<T> node) {
+        node.setIndex(buffer.size());
+        buffer.add(node);
+        if (buffer.size() >= capacity){
+            buffer.sort(Comparator.comparingInt(Node::getKey));
+            writeRun(buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * remove a node from the buffer, the last node of the buffer takes its place.
+     * @param node a node in the buffer.
+     */
+    private void removeFromBuffer(Node<T> node) {
+        int i = node.getIndex();
+        if (i < 0 || i >= buffer.size() || buffer.get(i) != node){
+            throw new InvalidParameterException("Node is not in memory");
+        }
+        Node<T> last = buffer.remove(buffer.size() - 1);
+        if (last != node){
+            last.setIndex(i);
+            buffer.set(i, last);
+        }
+    }
+
+    /**
+     * keep the lower half of the memory heap and write the upper half to disk.
+     */
+    private void spillMemory() {
+        ArrayList<Node<T>> sorted = new ArrayList<>(memory.getSize());
+        while (memory.getSize() > 0){
+            sorted.add(memory.extractMin());
+        }
+        resident.clear();
+        int keep = sorted.size() / 2;
+        for (Node<T> node : sorted.subList(0, keep)){
+            memory.insert(node);
+            resident.add(node);
+        }
+        limit = sorted.get(keep).getKey();
+        writeRun(sorted.subList(keep, sorted.size()));
+    }
+
+    /**
+     * move the next batch of nodes from disk to the memory heap, together with the buffered nodes below the new
+     * limit.
+     */
+    private void refill() {
+        try {
+            for (int i = 0; i < capacity / 2 && runs.getSize() > 0; i++){
+                Node<T> node = nextFromRuns();
+                memory.insert(node);
+                resident.add(node);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        limit = runs.getSize() == 0 ? Integer.MAX_VALUE : runs.minimum().getKey();
+        for (int i = buffer.size() - 1; i >= 0; i--){
+            Node<T> node = buffer.get(i);
+            if (node.getKey() <= limit){
+                removeFromBuffer(node);
+                toMemory(node);
+            }
+        }
+    }
+
+    /**
+     * remove the head of the run with the minimal head.
+     * @return the node.
+     */
+    private Node<T> nextFromRuns() throws IOException {
+        Run<T> run = runs.extractMin().getData();
+        Node<T> node = run.head;
+        run.advance();
+        if (run.head != null){
+            run.node = new Node<>(run, run.head.getKey());
+            runs.insert(run.node);
+        }else {
+            levels.get(run.level).remove(run);
+            runCount--;
+        }
+        return node;
+    }
+
+    /**
+     * write sorted nodes to a new run on level 0, then merge every full level into the next one.
+     * @param nodes the nodes in ascending order of key.
+     */
+    private void writeRun(Iterable<Node<T>> nodes) {
+        try {
+            Path file = Files.createTempFile(directory, "heap", ".run");
+            int count = 0;
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES))){
+                for (Node<T> node : nodes){
+                    out.writeInt(node.getKey());
+                    codec.write(out, node.getData());
+                    count++;
+                }
+            }
+            addRun(new Run<>(file, codec, count, 0));
+            for (int level = 0; level < levels.size() && levels.get(level).size() >= MAX_RUNS; level++){
+                mergeLevel(level);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * merge the runs of a level into a single run of the next level.
+     * @param level the level.
+     */
+    private void mergeLevel(int level) throws IOException {
+        BinomialHeap<Run<T>> heads = new BinomialHeap<>(); // the merged runs keyed by the key of their head.
+        for (Run<T> run : levels.get(level)){
+            runs.delete(run.node);
+            runCount--;
+            heads.insert(new Node<>(run, run.head.getKey()));
+        }
+        levels.get(level).clear();
+        Path file = Files.createTempFile(directory, "heap", ".run");
+        int count = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES))){
+            while (heads.getSize() > 0){
+                Run<T> run = heads.extractMin().getData();
+                out.writeInt(run.head.getKey());
+                codec.write(out, run.head.getData());
+                count++;
+                run.advance();
+                if (run.head != null){
+                    heads.insert(new Node<>(run, run.head.getKey()));
+                }
+            }
+        }
+        addRun(new Run<>(file, codec, count, level + 1));
+    }
+
+    /**
+     * add a run to the runs being merged and to its level.
+     * @param run the run.
+     */
+    private void addRun(Run<T> run) throws IOException {
+        if (run.head == null){
+            run.close();
+            return;
+        }
+        run.node = new Node<>(run, run.head.getKey());
+        runs.insert(run.node);
+        while (levels.size() <= run.level){
+            levels.add(new ArrayList<>());
+        }
+        levels.get(run.level).add(run);
+        runCount++;
+    }
+
+    /**
+     * pass each child of a node in memory to an action, or the roots of the memory heap and the buffered nodes if the
+     * node is null.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    @Override
+    void forEachChild(Node<T> node, Consumer<Node<T>> action) {
+        if (node == null){
+            checkInMemory();
+            memory.forEachChild(null, action);
+            buffer.forEach(action);
+        }else if (resident.contains(node)){
+            memory.forEachChild(node, action);
+        }
+    }
+
+    /**
+     * pass to an action the successors of a node in memory, or the candidates for the minimum of the memory heap and
+     * the buffered nodes if the node is null.
+     * @param node the node, or null.
+     * @param action the action.
+     */
+    @Override
+    void forEachSuccessor(Node<T> node, Consumer<Node<T>> action) {
+        if (node == null){
+            checkInMemory();
+            memory.forEachSuccessor(null, action);
+            buffer.forEach(action);
+        }else if (resident.contains(node)){
+            memory.forEachSuccessor(node, action);
+        }
+    }
+
+    /**
+     * nodes on disk can't be iterated without reading the runs, so iteration is refused once there are any.
+     */
+    private void checkInMemory() {
+        if (runCount > 0){
+            throw new IllegalStateException("Nodes on disk can't be iterated, the heap has " + runCount + " runs");
+        }
+    }
+
+    void drawHeap(){
+        memory.drawHeap();
+        System.out.println(buffer.size() + " buffered nodes, " + runCount + " runs on disk, limit " + limit);
+    }
+}
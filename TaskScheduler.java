@@ -0,0 +1,400 @@
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * a timer scheduler holding its tasks in a fibonacci heap keyed by deadline. a single dispatcher thread parks until
+ * the deadline of the minimum, then extracts every expired task and hands them to the executor as a batch.
+ * cancel and reschedule go through the node of the task: cancel deletes it, rescheduling earlier decreases its key and
+ * rescheduling later deletes it and inserts a new one. deleting a node that is not the minimum only cuts it out and
+ * makes its children trees, nothing is consolidated, so it takes O(log n) time at worst in the calling thread and
+ * leaves nothing behind for the dispatcher. the dispatcher extracts at most DRAIN_BATCH nodes each time it holds the
+ * lock, so callers never wait for a long drain.
+ * keys count ticks of a given resolution from an origin. once they grow past 2^30 a new heap is started from a new
+ * origin, the old heap only drains, all its tasks are due before the next time the origin moves.
+ */
+public class TaskScheduler implements AutoCloseable {
+    public static final long DEFAULT_RESOLUTION_NANOS = 10000;
+    private static final long REBASE_TICKS = 1 << 30; // move the origin forward once the current tick passes this.
+    private static final int DRAIN_BATCH = 256; // maximal number of nodes extracted while holding the lock.
+    private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1; // longer delays would overflow the deadline.
+
+    private static final int SCHEDULED = 0;
+    private static final int CANCELLED = 1;
+    private static final int DISPATCHED = 2;
+    private static final int REJECTED = 3;
+
+    /**
+     * a handle to a scheduled task.
+     */
+    public static final class Task implements Runnable {
+        private final Runnable runnable;
+        private long deadline; // in System.nanoTime
+        private Node<Task> node; // the node of the task in the heap, null once it left the heap.
+        private FibonacciHeap<Task> owner; // the heap holding node.
+        private volatile int state;
+
+        private Task(Runnable runnable) {
+            this.runnable = runnable;
+            state = SCHEDULED;
+        }
+
+        /**
+         *
+         * @return true if the task was cancelled before it was dispatched.
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         *
+         * @return true if the task was handed to the executor.
+         */
+        public boolean isDispatched() {
+            return state == DISPATCHED;
+        }
+
+        /**
+         *
+         * @return true if the executor refused the task when it was due, the task did not run.
+         */
+        public boolean isRejected() {
+            return state == REJECTED;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+    }
+
+    private FibonacciHeap<Task> heap; // new tasks are added here, keyed from origin.
+    private FibonacciHeap<Task> previous; // the heap before the origin last moved, keyed from previousOrigin.
+    private final ReentrantLock lock;
+    private final Condition available; // signalled when the minimum of the heap moves earlier.
+    private final Executor executor;
+    private final ExecutorService ownedExecutor; // the executor if it was created by the scheduler.
+    private final long resolution; // nanoseconds per tick.
+    private final Thread dispatcher;
+    private long origin; // the System.nanoTime of tick 0.
+    private long previousOrigin;
+    private int pending; // number of scheduled tasks.
+    private volatile boolean running;
+
+    /**
+     * constructor, runs tasks on virtual threads if the jvm has them and on a cached thread pool otherwise.
+     */
+    TaskScheduler() {
+        this(null, DEFAULT_RESOLUTION_NANOS);
+    }
+
+    /**
+     * constructor.
+     * @param executor runs the dispatched tasks, null for virtual threads if the jvm has them.
+     * @param resolution the length of a tick in nanoseconds, must be positive.
+     */
+    TaskScheduler(Executor executor, long resolution) {
+        if (resolution <= 0){
+            throw new InvalidParameterException("Resolution must be positive");
+        }
+        heap = new FibonacciHeap<>();
+        previous = new FibonacciHeap<>();
+        lock = new ReentrantLock();
+        available = lock.newCondition();
+        if (executor == null){
+            ownedExecutor = newTaskExecutor();
+            this.executor = ownedExecutor;
+        }else {
+            ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.resolution = resolution;
+        origin = System.nanoTime();
+        previousOrigin = origin;
+        pending = 0;
+        running = true;
+        dispatcher = new Thread(this::dispatch, "task-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     *
+     * @return a virtual thread per task executor if the jvm has them, a cached thread pool otherwise.
+     */
+    private static ExecutorService newTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     *
+     * @return the number of tasks waiting for their deadline.
+     */
+    public int getPending() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * schedule a task to run after a delay.
+     * @param runnable the task.
+     * @param delay the delay, negative delays run the task as soon as possible.
+     * @param unit the unit of the delay.
+     * @return the handle of the task.
+     */
+    Task schedule(Runnable runnable, long delay, TimeUnit unit) {
+        if (runnable == null){
+            throw new InvalidParameterException("Task must not be null");
+        }
+        Task task = new Task(runnable);
+        lock.lock();
+        try {
+            if (!running){
+                throw new IllegalStateException("Scheduler is closed");
+            }
+            task.deadline = deadlineAfter(delay, unit);
+            insert(task);
+            pending++;
+            if (heap.minimum() == task.node){
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return task;
+    }
+
+    /**
+     * cancel a task that was not dispatched yet.
+     * @param task the handle of the task.
+     * @return true if the task was cancelled.
+     */
+    boolean cancel(Task task) {
+        lock.lock();
+        try {
+            if (task.state != SCHEDULED){
+                return false;
+            }
+            task.state = CANCELLED;
+            pending--;
+            remove(task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * move the deadline of a task that was not dispatched yet.
+     * @param task the handle of the task.
+     * @param delay the new delay from now.
+     * @param unit the unit of the delay.
+     * @return true if the task was rescheduled.
+     */
+    boolean reschedule(Task task, long delay, TimeUnit unit) {
+        lock.lock();
+        try {
+            if (task.state != SCHEDULED){
+                return false;
+            }
+            task.deadline = deadlineAfter(delay, unit);
+            int key = key(task.deadline);
+            if (task.owner == heap && key <= task.node.getKey()){
+                heap.decreaseKey(task.node, key);
+            }else {
+                remove(task);
+                insert(task);
+            }
+            if (heap.minimum() == task.node){
+                available.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * stop the dispatcher, tasks that were not dispatched yet are dropped.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ownedExecutor != null){
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * delete the node of a task from its heap.
+     * @param task the task.
+     */
+    private void remove(Task task) {
+        task.owner.delete(task.node);
+        task.node = null;
+        task.owner = null;
+    }
+
+    /**
+     * @param delay a delay, delays are capped to MAX_DELAY_NANOS and negative ones count as 0, so the deadline never
+     * overflows.
+     * @param unit the unit of the delay.
+     * @return the System.nanoTime when the delay ends.
+     */
+    private static long deadlineAfter(long delay, TimeUnit unit) {
+        return System.nanoTime() + Math.max(0, Math.min(MAX_DELAY_NANOS, unit.toNanos(delay)));
+    }
+
+    /**
+     * @param time a System.nanoTime.
+     * @return the first tick not before the time, as a key.
+     */
+    private int key(long time) {
+        long ticks = Math.floorDiv(time - origin + resolution - 1, resolution);
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, ticks));
+    }
+
+    /**
+     * @param time a System.nanoTime.
+     * @return the last tick not after the time.
+     */
+    private long tick(long time) {
+        return Math.floorDiv(time - origin, resolution);
+    }
+
+    /**
+     * add a task to the heap under the key of its deadline.
+     * @param task the task.
+     */
+    private void insert(Task task) {
+        task.node = new Node<>(task, key(task.deadline));
+        task.owner = heap;
+        heap.insert(task.node);
+    }
+
+    /**
+     * start a new heap from the current tick, the current heap becomes the previous one. must only be called once the
+     * previous heap is empty.
+     * @param now the current System.nanoTime.
+     */
+    private void rebase(long now) {
+        previous = heap;
+        previousOrigin = origin;
+        heap = new FibonacciHeap<>();
+        origin += tick(now) * resolution;
+    }
+
+    /**
+     * @param owner the heap holding the node.
+     * @param node a node.
+     * @return the System.nanoTime the key of the node stands for.
+     */
+    private long deadline(FibonacciHeap<Task> owner, Node<Task> node) {
+        return (owner == heap ? origin : previousOrigin) + node.getKey() * resolution;
+    }
+
+    /**
+     *
+     * @return the heap whose minimum comes first, null if both are empty.
+     */
+    private FibonacciHeap<Task> earliest() {
+        Node<Task> current = heap.minimum();
+        Node<Task> old = previous.minimum();
+        if (old == null){
+            return current == null ? null : heap;
+        }
+        if (current == null || deadline(previous, old) - deadline(heap, current) < 0){
+            return previous;
+        }
+        return heap;
+    }
+
+    /**
+     * the dispatcher loop, waits for the first minimum of the heaps to expire and dispatches the expired tasks.
+     */
+    private void dispatch() {
+        ArrayList<Task> batch = new ArrayList<>();
+        while (running){
+            lock.lock();
+            try {
+//                close may have run between the check of the loop and taking the lock.
+                if (!running){
+                    return;
+                }
+                long now = System.nanoTime();
+                if (tick(now) > REBASE_TICKS && previous.getSize() == 0){
+                    rebase(now);
+                }
+                FibonacciHeap<Task> next = earliest();
+                if (next == null){
+                    available.await();
+                    continue;
+                }
+                Node<Task> min = next.minimum();
+                long wait = deadline(next, min) - now;
+                if (wait > 0){
+                    available.awaitNanos(wait);
+                    continue;
+                }
+//                extract a bounded number of nodes, the loop comes back for the rest after releasing the lock.
+                for (int i = 0; i < DRAIN_BATCH && (next = earliest()) != null; i++){
+                    min = next.minimum();
+                    if (deadline(next, min) - now > 0){
+                        break;
+                    }
+                    next.extractMin();
+                    Task task = min.getData();
+//                    a deadline beyond the largest key is clamped, put it back under a key from the current origin.
+                    if (task.deadline - now > 0){
+                        insert(task);
+                        continue;
+                    }
+                    task.node = null;
+                    task.owner = null;
+                    task.state = DISPATCHED;
+                    pending--;
+                    batch.add(task);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+//            a rejected task is only marked, the dispatcher has to stay alive for the other tasks.
+            for (Task task : batch){
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.state = REJECTED;
+                }
+            }
+            batch.clear();
+        }
+    }
+}
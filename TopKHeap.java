@@ -0,0 +1,188 @@
+import java.security.InvalidParameterException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.stream.Stream;
+
+/**
+ * a bounded heap keeping only the k nodes with smallest (or largest) keys offered to it. the nodes are kept in a fixed
+ * array ordered as a binary heap with the worst kept node at the top, so a node that doesn't qualify is rejected with a
+ * single comparison and a node that does replaces the worst one in place.
+ * @param <T>
+ */
+public class TopKHeap<T> {
+
+    private final Node<T>[] nodes; // binary heap, the children of i are at 2i+1 and 2i+2.
+    private final boolean largest; // whether the heap keeps the largest keys instead of the smallest.
+    private int size;
+
+    /**
+     * constructor for a heap keeping the smallest keys.
+     * @param capacity the number of nodes to keep, must be positive.
+     */
+    TopKHeap(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * constructor.
+     * @param capacity the number of nodes to keep, must be positive.
+     * @param largest keep the nodes with largest keys instead of smallest.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TopKHeap(int capacity, boolean largest) {
+        if (capacity <= 0){
+            throw new InvalidParameterException("Capacity must be positive");
+        }
+        nodes = new Node[capacity];
+        this.largest = largest;
+        size = 0;
+    }
+
+    /**
+     *
+     * @return the number of nodes kept.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     *
+     * @return the maximal number of nodes kept.
+     */
+    public int getCapacity() {
+        return nodes.length;
+    }
+
+    /**
+     *
+     * @return true if the heap keeps the largest keys.
+     */
+    public boolean keepsLargest() {
+        return largest;
+    }
+
+    /**
+     * offer a node to the heap, once the heap is full it is only kept if it is better than the worst kept node, which
+     * is then evicted.
+     * @param node the node to offer.
+     * @return the node that was dropped, either the given node or the evicted one, or null if no node was dropped.
+     */
+    Node<T> offer(Node<T> node) {
+        if (node == null){
+            return null;
+        }
+        if (size < nodes.length){
+            nodes[size] = node;
+            siftUp(size);
+            size++;
+            return null;
+        }
+        if (!better(node, nodes[0])){
+            return node;
+        }
+        Node<T> evicted = nodes[0];
+        nodes[0] = node;
+        siftDown(0);
+        return evicted;
+    }
+
+    /**
+     * offer all nodes of an iterator to the heap, one at a time.
+     * @param iterator the nodes to offer.
+     */
+    void offerAll(Iterator<? extends Node<T>> iterator) {
+        while (iterator.hasNext()){
+            offer(iterator.next());
+        }
+    }
+
+    /**
+     * offer all nodes of a stream to the heap, one at a time.
+     * @param stream the nodes to offer.
+     */
+    void offerAll(Stream<? extends Node<T>> stream) {
+        offerAll(stream.iterator());
+    }
+
+    /**
+     *
+     * @return the worst kept node, a node must beat it to be kept once the heap is full.
+     */
+    Node<T> threshold() {
+        return size == 0 ? null : nodes[0];
+    }
+
+    /**
+     * remove the worst kept node from the heap.
+     * @return the worst kept node.
+     */
+    Node<T> extractWorst() {
+        if (size == 0){
+            return null;
+        }
+        Node<T> worst = nodes[0];
+        size--;
+        nodes[0] = nodes[size];
+        nodes[size] = null;
+        if (size > 0){
+            siftDown(0);
+        }
+        return worst;
+    }
+
+    /**
+     * remove all nodes from the heap.
+     * @return the nodes that were kept, best first.
+     */
+    LinkedList<Node<T>> drain() {
+        LinkedList<Node<T>> list = new LinkedList<Node<T>>();
+        while (size > 0){
+            list.addFirst(extractWorst());
+        }
+        return list;
+    }
+
+    /**
+     * @param x a node.
+     * @param y a node.
+     * @return true if x should be kept over y.
+     */
+    private boolean better(Node<T> x, Node<T> y) {
+        return largest ? x.getKey() > y.getKey() : x.getKey() < y.getKey();
+    }
+
+    /**
+     * move a node up until its parent is worse than it.
+     * @param i the index of the node.
+     */
+    private void siftUp(int i) {
+        Node<T> node = nodes[i];
+        while (i > 0 && better(nodes[(i - 1) / 2], node)){
+            nodes[i] = nodes[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        nodes[i] = node;
+    }
+
+    /**
+     * move a node down until both its children are better than it.
+     * @param i the index of the node.
+     */
+    private void siftDown(int i) {
+        Node<T> node = nodes[i];
+        int child = 2 * i + 1;
+        while (child < size){
+            if (child + 1 < size && better(nodes[child], nodes[child + 1])){
+                child++;
+            }
+            if (!better(node, nodes[child])){
+                break;
+            }
+            nodes[i] = nodes[child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        nodes[i] = node;
+    }
+}